@@ -0,0 +1,123 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import lombok.Getter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 주문 목록 직렬화 : 기존 OrderDto 변환 방식 vs OrderListResponse(엔티티 -> JsonGenerator 직접 쓰기)
+ * ./gradlew jmh 결과의 gc.alloc.rate.norm(bytes/op)로 할당량을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrderSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    int orderCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        Member member = new Member();
+        member.setName("userA");
+        member.setAddress(new Address("서울", "1", "1111"));
+
+        orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            Book book1 = createBook("JPA1 BOOK", 10000);
+            Book book2 = createBook("JPA2 BOOK", 20000);
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+            Order order = Order.createOrder(member, delivery,
+                    OrderItem.createOrderItem(book1, 10000, 1),
+                    OrderItem.createOrderItem(book2, 20000, 2));
+            order.setId((long) i);
+            orders.add(order);
+        }
+        member.getOrders().clear();
+    }
+
+    @Benchmark
+    public void dtoMapping() throws Exception {
+        List<LegacyOrderDto> result = orders.stream()
+                .map(LegacyOrderDto::new)
+                .collect(toList());
+        objectMapper.writeValue(OutputStream.nullOutputStream(), result);
+    }
+
+    @Benchmark
+    public void directSerializer() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), new OrderListResponse(orders));
+    }
+
+    private static Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(Integer.MAX_VALUE);
+        return book;
+    }
+
+    /**
+     * 변경 전 OrderApiController.OrderDto / OrderItemDto 와 같은 변환
+     */
+    @Getter
+    static class LegacyOrderDto {
+        private final Long orderId;
+        private final String name;
+        private final LocalDateTime orderDate;
+        private final OrderStatus orderStatus;
+        private final Address address;
+        private final List<LegacyOrderItemDto> orderItems;
+
+        LegacyOrderDto(Order order) {
+            orderId = order.getId();
+            name = order.getMember().getName();
+            orderDate = order.getOrderDate();
+            orderStatus = order.getStatus();
+            address = order.getDelivery().getAddress();
+            orderItems = order.getOrderItems().stream()
+                    .map(LegacyOrderItemDto::new)
+                    .collect(toList());
+        }
+    }
+
+    @Getter
+    static class LegacyOrderItemDto {
+        private final String itemName;
+        private final int orderPrice;
+        private final int count;
+
+        LegacyOrderItemDto(OrderItem orderItem) {
+            itemName = orderItem.getItem().getName();
+            orderPrice = orderItem.getOrderPrice();
+            count = orderItem.getCount();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/v5/orders 응답(OrderQueryDto 목록)의 포맷별 직렬화 처리량 비교
+ * - 포맷별 payload 크기는 @Setup에서 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    String format;
+
+    @Param({"1000"})
+    int orderCount;
+
+    private ObjectMapper objectMapper;
+    private List<OrderQueryDto> orders;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "SMILE" -> new ObjectMapper(new SmileFactory());
+            case "CBOR" -> new ObjectMapper(new CBORFactory());
+            default -> new ObjectMapper();
+        };
+        objectMapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        orders = new ArrayList<>(orderCount);
+        for (long id = 1; id <= orderCount; id++) {
+            OrderQueryDto order = new OrderQueryDto(id, "userA", LocalDateTime.now(), OrderStatus.ORDER,
+                    new Address("서울", "1", "1111"));
+            order.setOrderItems(List.of(
+                    new OrderItemQueryDto(id, "JPA1 BOOK", 10000, 1),
+                    new OrderItemQueryDto(id, "JPA2 BOOK", 20000, 2)));
+            orders.add(order);
+        }
+        System.out.printf("%n[%s] payload size for %d orders: %d bytes%n",
+                format, orderCount, objectMapper.writeValueAsBytes(orders).length);
+    }
+
+    @Benchmark
+    public void serialize() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), orders);
+    }
+}
@@ -0,0 +1,75 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 생성 지연 시간 : 회원의 기존 주문 수(existingOrders)와 상관없이 일정해야 한다.
+ * - Order.setMember()가 회원의 orders 컬렉션을 초기화하면 기존 주문 수에 비례해서 느려진다.
+ * ./gradlew jmh -Pjmh.includes=OrderPlacementBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrderPlacementBenchmark {
+
+    @Param({"0", "1000", "10000"})
+    int existingOrders;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Long memberId;
+    private Long itemId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:order-placement;DB_CLOSE_DELAY=-1",
+                        "jpashop.r2dbc.url=r2dbc:pool:h2:mem:///order-placement",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "logging.level.org.hibernate.orm.jdbc.bind=warn")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        MemberService memberService = context.getBean(MemberService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+
+        Member member = new Member();
+        member.setName("benchmark");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberId = memberService.join(member);
+
+        Book book = new Book();
+        book.setName("benchmark BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(Integer.MAX_VALUE);
+        itemService.save(book);
+        itemId = book.getId();
+
+        for (int i = 0; i < existingOrders; i++) {
+            orderService.order(memberId, itemId, 1);
+        }
+    }
+
+    @Benchmark
+    public Long order() {
+        return orderService.order(memberId, itemId, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+}
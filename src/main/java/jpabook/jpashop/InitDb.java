@@ -1,23 +1,33 @@
 package jpabook.jpashop;
 
-import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.sales.SalesRollupRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * 샘플 데이터 (운영 프로필에서는 등록하지 않음)
+ * - 기동이 끝난 뒤(ApplicationReadyEvent)에 넣어서 기동 시간에 포함되지 않게 한다.
+ */
 @Component
+@Profile("!prod")
 @RequiredArgsConstructor
 public class InitDb {
 
     private final InitService initService;
+    private final SalesRollupRepository salesRollupRepository;
 
-    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
     public void init() {
         initService.dbInit1();
         initService.dbInit2();
+        salesRollupRepository.backfillIfEmpty();  // 샘플 주문은 OrderService를 거치지 않으므로 매출 집계를 따로 채운다.
     }
 
     @Component
@@ -3,9 +3,12 @@ package jpabook.jpashop;
 import com.fasterxml.jackson.datatype.hibernate5.jakarta.Hibernate5JakartaModule;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)  // R2DBC ConnectionFactory 빈이 생기면 JPA DataSource 설정이 꺼진다.
+@EnableScheduling
 public class JpashopApplication {
 
 	public static void main(String[] args) {
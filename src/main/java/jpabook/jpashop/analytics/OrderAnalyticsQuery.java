@@ -0,0 +1,28 @@
+package jpabook.jpashop.analytics;
+
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 스냅샷 조회 조건 (예: 상태가 ORDER인 주문의 상품별 매출)
+ */
+@Getter @Setter
+public class OrderAnalyticsQuery {
+
+    private Measure measure = Measure.REVENUE;
+    private GroupBy groupBy = GroupBy.ITEM;
+
+    // 필터 (null이면 조건 없음)
+    private OrderStatus status;
+    private String memberName;
+    private String itemName;
+
+    public enum Measure {
+        REVENUE, QUANTITY
+    }
+
+    public enum GroupBy {
+        ITEM, MEMBER, STATUS
+    }
+}
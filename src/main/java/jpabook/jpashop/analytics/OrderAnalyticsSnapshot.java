@@ -0,0 +1,163 @@
+package jpabook.jpashop.analytics;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 주문 분석용 인메모리 컬럼 스냅샷
+ * - orders + order_item을 OrderLineColumns(primitive 배열 + 사전 인코딩)로 적재하고, 조회는 DB 없이 fork-join 스캔으로 처리한다.
+ * - 갱신은 마지막으로 적재한 주문 id 이후의 주문만 추가하고, 지난 갱신 이후 취소된(canceled_at) 주문의 상태만 다시 반영한다.
+ * - 커밋 순서와 id(취소 시각) 순서가 어긋난 주문을 놓치지 않도록 settle(jpashop.analytics.settle) 이전에 생성(취소)된 주문까지만 반영한다.
+ *   (단일 인스턴스 기준. 여러 인스턴스가 시퀀스 블록을 나눠 쓰면 id가 시간 순서를 보장하지 않는다.)
+ */
+@Slf4j
+@Component
+@Lazy(false)  // 지연 초기화(prod)에서도 스케줄 등록
+public class OrderAnalyticsSnapshot {
+
+    private static final int ORDER_PAGE_SIZE = 1000;
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTx;
+    private final Duration settle;
+    private final OrderLineColumns columns = new OrderLineColumns();
+    private long lastOrderId;  // 적재한 마지막 주문 id (상품이 없는 주문도 포함)
+    private LocalDateTime canceledBefore;  // 이 시각 이전의 취소는 반영함 (첫 적재 전에는 null)
+    private volatile OrderLineColumns.View view = columns.view();
+
+    public OrderAnalyticsSnapshot(EntityManager em, PlatformTransactionManager transactionManager,
+                                  @Value("${jpashop.analytics.settle:10s}") Duration settle) {
+        this.em = em;
+        this.settle = settle;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @Scheduled(initialDelayString = "${jpashop.analytics.initial-delay:10000}",
+            fixedDelayString = "${jpashop.analytics.refresh-interval:60000}")
+    public synchronized void refresh() {
+        int before = view.size();
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settle);
+        readOnlyTx.executeWithoutResult(status -> {
+            appendNewOrders(settledBefore);
+            if (canceledBefore != null) {
+                applyCanceledOrders(canceledBefore, settledBefore);  // 첫 적재는 현재 상태를 그대로 읽음
+            }
+        });
+        canceledBefore = settledBefore;
+        view = columns.view();
+        log.debug("order analytics snapshot refreshed: {} -> {} lines", before, view.size());
+    }
+
+    /**
+     * 그룹별 합계 (그룹 이름 -> 합계, 합계가 0인 그룹은 제외)
+     */
+    public Map<String, Long> sum(OrderAnalyticsQuery query) {
+        OrderLineColumns.View current = view;
+        String[] groupNames = switch (query.getGroupBy()) {
+            case ITEM -> current.itemNames();
+            case MEMBER -> current.memberNames();
+            case STATUS -> statusNames();
+        };
+
+        int memberFilter = query.getMemberName() == null ? -1 : indexOf(current.memberNames(), query.getMemberName());
+        int itemFilter = query.getItemName() == null ? -1 : indexOf(current.itemNames(), query.getItemName());
+        if (memberFilter == -2 || itemFilter == -2) {
+            return Map.of();  // 스냅샷에 없는 이름
+        }
+        int statusFilter = query.getStatus() == null ? -1 : query.getStatus().ordinal();
+
+        long[] sums = ForkJoinPool.commonPool().invoke(new OrderLineScan(current, query, groupNames.length,
+                statusFilter, memberFilter, itemFilter, 0, current.size()));
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int g = 0; g < groupNames.length; g++) {
+            if (sums[g] != 0) {
+                result.put(groupNames[g], sums[g]);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return view.size();
+    }
+
+    private void appendNewOrders(LocalDateTime settledBefore) {
+        while (true) {
+            List<Long> orderIds = em.createQuery(
+                            "select o.id from Order o " +
+                                    "where o.id > :lastOrderId and o.orderDate < :settledBefore " +
+                                    "order by o.id", Long.class)
+                    .setParameter("lastOrderId", lastOrderId)
+                    .setParameter("settledBefore", settledBefore)
+                    .setMaxResults(ORDER_PAGE_SIZE)
+                    .getResultList();
+            if (orderIds.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> lines = em.createQuery(
+                            "select o.id, o.status, m.name, i.name, oi.orderPrice, oi.count " +
+                                    "from OrderItem oi " +
+                                    "join oi.order o " +
+                                    "join o.member m " +
+                                    "join oi.item i " +
+                                    "where o.id in :orderIds " +
+                                    "order by o.id", Object[].class)
+                    .setParameter("orderIds", orderIds)
+                    .getResultList();
+            for (Object[] line : lines) {
+                columns.append((Long) line[0], ((OrderStatus) line[1]).ordinal(), (String) line[2], (String) line[3],
+                        (Integer) line[4], (Integer) line[5]);
+            }
+            lastOrderId = orderIds.get(orderIds.size() - 1);
+            em.clear();
+        }
+    }
+
+    private void applyCanceledOrders(LocalDateTime from, LocalDateTime to) {
+        List<Long> canceledIds = em.createQuery(
+                        "select o.id from Order o " +
+                                "where o.canceledAt >= :from and o.canceledAt < :to and o.id <= :lastOrderId", Long.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("lastOrderId", lastOrderId)
+                .getResultList();
+        for (Long orderId : canceledIds) {
+            columns.updateStatus(orderId, OrderStatus.CANCEL.ordinal());
+        }
+    }
+
+    private static String[] statusNames() {
+        OrderStatus[] statuses = OrderStatus.values();
+        String[] names = new String[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            names[i] = statuses[i].name();
+        }
+        return names;
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -2;
+    }
+}
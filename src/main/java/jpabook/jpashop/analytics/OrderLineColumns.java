@@ -0,0 +1,112 @@
+package jpabook.jpashop.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 주문 상품(order_item) 한 줄을 컬럼별 primitive 배열에 저장하는 append-only 저장소
+ * - 쓰기는 OrderAnalyticsSnapshot.refresh() 한 곳에서만 한다. (단일 writer)
+ * - 읽는 쪽은 view()로 받은 크기까지만 읽으므로, 그 뒤에 추가되는 행과 경합하지 않는다.
+ * - 배열이 꽉 차면 새 배열로 복사하므로 이전 view는 이전 배열을 계속 본다.
+ * - 상태는 이미 공개한 줄도 바뀌므로 copy-on-write : view()로 공개한 statuses 배열은 고치지 않고 복사본을 고친다.
+ */
+class OrderLineColumns {
+
+    private int size;
+    private long[] orderIds = new long[1024];  // 오름차순 (주문 id 순으로 추가)
+    private byte[] statuses = new byte[1024];  // OrderStatus.ordinal()
+    private boolean statusesPublished;  // statuses를 view()로 공개했으면 true
+    private int[] memberCodes = new int[1024];  // memberNames 사전 코드
+    private int[] itemCodes = new int[1024];  // itemNames 사전 코드
+    private int[] prices = new int[1024];
+    private int[] counts = new int[1024];
+
+    private final Dictionary memberNames = new Dictionary();
+    private final Dictionary itemNames = new Dictionary();
+
+    void append(long orderId, int statusOrdinal, String memberName, String itemName, int price, int count) {
+        ensureCapacity(size + 1);
+        orderIds[size] = orderId;
+        statuses[size] = (byte) statusOrdinal;
+        memberCodes[size] = memberNames.encode(memberName);
+        itemCodes[size] = itemNames.encode(itemName);
+        prices[size] = price;
+        counts[size] = count;
+        size++;
+    }
+
+    /**
+     * 주문의 모든 줄의 상태를 바꾼다. (orderIds가 정렬되어 있으므로 이진 탐색)
+     */
+    void updateStatus(long orderId, int statusOrdinal) {
+        int index = Arrays.binarySearch(orderIds, 0, size, orderId);
+        if (index < 0) {
+            return;
+        }
+        if (statusesPublished) {
+            statuses = statuses.clone();
+            statusesPublished = false;
+        }
+        while (index > 0 && orderIds[index - 1] == orderId) {
+            index--;
+        }
+        for (; index < size && orderIds[index] == orderId; index++) {
+            statuses[index] = (byte) statusOrdinal;
+        }
+    }
+
+    View view() {
+        statusesPublished = true;
+        return new View(size, statuses, memberCodes, itemCodes, prices, counts,
+                memberNames.snapshot(), itemNames.snapshot());
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= orderIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, orderIds.length * 2);
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        statusesPublished = false;
+        memberCodes = Arrays.copyOf(memberCodes, capacity);
+        itemCodes = Arrays.copyOf(itemCodes, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+    }
+
+    /**
+     * 조회 시점의 불변 view. size 이후의 배열 내용은 읽지 않는다.
+     */
+    record View(int size, byte[] statuses, int[] memberCodes, int[] itemCodes, int[] prices, int[] counts,
+                String[] memberNames, String[] itemNames) {
+    }
+
+    /**
+     * 문자열 사전 인코딩 (이름 -> 0부터 증가하는 코드)
+     */
+    private static class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[256];
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            int newCode = codes.size();
+            if (newCode == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[newCode] = value;
+            codes.put(value, newCode);
+            return newCode;
+        }
+
+        String[] snapshot() {
+            return Arrays.copyOf(values, codes.size());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package jpabook.jpashop.analytics;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * view를 구간으로 나눠 fork-join으로 필터 + 그룹별 합계를 계산한다.
+ * - 그룹 키는 사전 코드(또는 상태 ordinal)이므로 결과는 long[] 하나로 누적된다. (박싱/해시 없음)
+ */
+class OrderLineScan extends RecursiveTask<long[]> {
+
+    private static final int THRESHOLD = 1 << 16;
+
+    private final OrderLineColumns.View view;
+    private final OrderAnalyticsQuery query;
+    private final int groupCount;
+    private final int statusFilter;  // -1 이면 전체
+    private final int memberFilter;
+    private final int itemFilter;
+    private final int from;
+    private final int to;
+
+    OrderLineScan(OrderLineColumns.View view, OrderAnalyticsQuery query, int groupCount,
+                  int statusFilter, int memberFilter, int itemFilter, int from, int to) {
+        this.view = view;
+        this.query = query;
+        this.groupCount = groupCount;
+        this.statusFilter = statusFilter;
+        this.memberFilter = memberFilter;
+        this.itemFilter = itemFilter;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected long[] compute() {
+        if (to - from <= THRESHOLD) {
+            return scan();
+        }
+        int mid = (from + to) >>> 1;
+        OrderLineScan left = new OrderLineScan(view, query, groupCount, statusFilter, memberFilter, itemFilter, from, mid);
+        OrderLineScan right = new OrderLineScan(view, query, groupCount, statusFilter, memberFilter, itemFilter, mid, to);
+        left.fork();
+        long[] sums = right.compute();
+        long[] leftSums = left.join();
+        for (int g = 0; g < groupCount; g++) {
+            sums[g] += leftSums[g];
+        }
+        return sums;
+    }
+
+    private long[] scan() {
+        long[] sums = new long[groupCount];
+        byte[] statuses = view.statuses();
+        int[] memberCodes = view.memberCodes();
+        int[] itemCodes = view.itemCodes();
+        int[] prices = view.prices();
+        int[] counts = view.counts();
+        boolean revenue = query.getMeasure() == OrderAnalyticsQuery.Measure.REVENUE;
+
+        for (int i = from; i < to; i++) {
+            if (statusFilter >= 0 && statuses[i] != statusFilter) continue;
+            if (memberFilter >= 0 && memberCodes[i] != memberFilter) continue;
+            if (itemFilter >= 0 && itemCodes[i] != itemFilter) continue;
+
+            int group = switch (query.getGroupBy()) {
+                case ITEM -> itemCodes[i];
+                case MEMBER -> memberCodes[i];
+                case STATUS -> statuses[i];
+            };
+            sums[group] += revenue ? (long) prices[i] * counts[i] : counts[i];
+        }
+        return sums;
+    }
+}
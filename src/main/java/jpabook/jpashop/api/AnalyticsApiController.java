@@ -0,0 +1,33 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.analytics.OrderAnalyticsQuery;
+import jpabook.jpashop.analytics.OrderAnalyticsSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 인메모리 스냅샷 기반 주문 분석 API (DB 조회 없음)
+ * 예) /api/analytics/orders?measure=REVENUE&groupBy=ITEM&status=ORDER
+ */
+@RestController
+@RequiredArgsConstructor
+public class AnalyticsApiController {
+
+    private final OrderAnalyticsSnapshot orderAnalyticsSnapshot;
+
+    @GetMapping("/api/analytics/orders")
+    public Map<String, Long> orders(@ModelAttribute OrderAnalyticsQuery query) {
+        return orderAnalyticsSnapshot.sum(query);
+    }
+
+    @PostMapping("/api/analytics/orders/refresh")
+    public int refresh() {
+        orderAnalyticsSnapshot.refresh();
+        return orderAnalyticsSnapshot.size();
+    }
+}
@@ -3,12 +3,16 @@ package jpabook.jpashop.api;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
 import jpabook.jpashop.service.MemberService;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,6 +21,7 @@ import java.util.stream.Collectors;
 public class ApiMemberController {
 
     private final MemberService memberService;
+    private final OrderQueryRepository orderQueryRepository;
 
     /**
      * 조회 v1 : 응답 값으로 엔티티를 직접 외부에 노출함 -> List<Member>
@@ -107,6 +112,35 @@ public class ApiMemberController {
         private String name;
     }
 
+    /**
+     * 회원 주문 내역 v2 : 최신순 keyset 페이징
+     * - member.getOrders()는 전체 주문을 로딩하므로 사용하지 않는다.
+     * - 다음 페이지는 응답의 nextBeforeOrderDate, nextBeforeOrderId를 그대로 넘긴다. (마지막 페이지면 null)
+     * 예) /api/v2/members/1/orders?size=20&beforeOrderDate=2024-05-01T10:00:00&beforeOrderId=120
+     */
+    @GetMapping("/api/v2/members/{id}/orders")
+    public OrderHistoryResult<List<OrderQueryDto>> memberOrdersV2(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "beforeOrderDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeOrderDate,
+            @RequestParam(value = "beforeOrderId", required = false) Long beforeOrderId,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        int limit = Math.max(1, Math.min(size, 100));
+        List<OrderQueryDto> orders = orderQueryRepository.findMemberOrderHistory(id, beforeOrderDate, beforeOrderId, limit);
+        if (orders.size() < limit) {
+            return new OrderHistoryResult<>(orders, null, null);
+        }
+        OrderQueryDto last = orders.get(orders.size() - 1);
+        return new OrderHistoryResult<>(orders, last.getOrderDate(), last.getOrderId());
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class OrderHistoryResult<T> {
+        private T data;
+        private LocalDateTime nextBeforeOrderDate;
+        private Long nextBeforeOrderId;
+    }
+
     /**
      * 등록 v1 : 요청 값으로 Member 엔티티를 직접 만든다.
      * 문제점 :
@@ -0,0 +1,54 @@
+package jpabook.jpashop.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.repository.delivery.DeliveryBacklogDto;
+import jpabook.jpashop.repository.delivery.DeliveryRepository;
+import jpabook.jpashop.service.DeliveryStatusService;
+import jpabook.jpashop.service.DeliveryStatusUpdateResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 배송 상태 API
+ * 예) curl -X POST -H 'Content-Type: text/csv' --data-binary @deliveries.csv /api/deliveries/status-feed
+ */
+@RestController
+@RequiredArgsConstructor
+public class DeliveryApiController {
+
+    private final DeliveryStatusService deliveryStatusService;
+    private final DeliveryRepository deliveryRepository;
+
+    @PostMapping(value = "/api/deliveries/status-feed", consumes = "text/csv")
+    public DeliveryStatusUpdateResult statusFeed(HttpServletRequest request) throws IOException {
+        return deliveryStatusService.updateFromCsv(request.getReader());
+    }
+
+    /**
+     * 배송 대기 목록. 다음 페이지는 응답의 nextAfterId를 afterId로 넘긴다.
+     */
+    @GetMapping("/api/deliveries/ready")
+    public BacklogResult<List<DeliveryBacklogDto>> readyBacklog(@RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+                                                          @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        List<DeliveryBacklogDto> deliveries = deliveryRepository.findReadyBacklog(afterId, Math.min(limit, 1000));
+        Long nextAfterId = deliveries.isEmpty() ? null : deliveries.get(deliveries.size() - 1).getDeliveryId();
+        return new BacklogResult<>(deliveryRepository.countByStatus(DeliveryStatus.READY), nextAfterId, deliveries);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class BacklogResult<T> {
+        private long readyCount;
+        private Long nextAfterId;
+        private T data;
+    }
+}
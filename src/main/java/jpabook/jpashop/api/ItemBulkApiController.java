@@ -0,0 +1,33 @@
+package jpabook.jpashop.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jpabook.jpashop.service.ItemBulkUpdateResult;
+import jpabook.jpashop.service.ItemBulkUpdateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * 상품 가격/재고 대량 수정 API
+ * - 요청 본문을 통째로 읽어서 바인딩하지 않고 스트림 그대로 서비스에 넘긴다.
+ * 예) curl -X POST -H 'Content-Type: text/csv' --data-binary @items.csv /api/items/bulk-update
+ */
+@RestController
+@RequiredArgsConstructor
+public class ItemBulkApiController {
+
+    private final ItemBulkUpdateService itemBulkUpdateService;
+
+    @PostMapping(value = "/api/items/bulk-update", consumes = "text/csv")
+    public ItemBulkUpdateResult bulkUpdateCsv(HttpServletRequest request) throws IOException {
+        return itemBulkUpdateService.updateFromCsv(request.getReader());
+    }
+
+    @PostMapping(value = "/api/items/bulk-update", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ItemBulkUpdateResult bulkUpdateJson(HttpServletRequest request) throws IOException {
+        return itemBulkUpdateService.updateFromJson(request.getInputStream());
+    }
+}
@@ -6,15 +6,16 @@ import jpabook.jpashop.repository.order.query.OrderFlatDto;
 import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.repository.order.query.OrderReactiveQueryRepository;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,6 +27,7 @@ public class OrderApiController {
 
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final OrderReactiveQueryRepository orderReactiveQueryRepository;
 
     @GetMapping("/api/v1/orders")
     public List<Order> ordersV1() {
@@ -39,36 +41,38 @@ public class OrderApiController {
         return all;
     }
 
+    /**
+     * v2, v3, v3.1 : 엔티티를 조회해서 OrderListResponse로 응답 (DTO 그래프를 만들지 않고 직렬화 시점에 바로 씀)
+     */
     @GetMapping("/api/v2/orders")
-    public List<OrderDto> ordersV2() {
+    public OrderListResponse ordersV2() {
         List<Order> orders = orderRepository.findAllByString(new OrderSearch());
-        List<OrderDto> result = orders.stream()
-                .map(o -> new OrderDto(o))
-                .collect(toList());
-
-        return result;
+        return new OrderListResponse(orders);
     }
 
     @GetMapping("/api/v3/orders")
-    public List<OrderDto> ordersV3() {
+    public OrderListResponse ordersV3() {
         List<Order> orders = orderRepository.findAllwithItem();
-        List<OrderDto> result = orders.stream()
-                .map(o -> new OrderDto(o))
-                .collect(toList());
-
-        return result;
+        return new OrderListResponse(orders);
     }
 
     @GetMapping("/api/v3.1/orders")
-    public List<OrderDto> ordersV3_page(
+    public OrderListResponse ordersV3_page(
             @RequestParam(value = "offset", defaultValue = "0") int offset,
             @RequestParam(value = "limit", defaultValue = "100") int limit) {
         List<Order> orders = orderRepository.findAllWithMemberDelivery(offset, limit);
-        List<OrderDto> result = orders.stream()
-                .map(o -> new OrderDto(o))
-                .collect(toList());
+        return new OrderListResponse(orders);
+    }
 
-        return result;
+    /**
+     * v3.2 : v3(컬렉션 fetch join)에 페이징 추가. 주문 id를 먼저 페이징하므로 메모리 페이징이 일어나지 않는다.
+     */
+    @GetMapping("/api/v3.2/orders")
+    public OrderListResponse ordersV3_2_page(
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        List<Order> orders = orderRepository.findAllWithItem(offset, Math.min(limit, 1000));
+        return new OrderListResponse(orders);
     }
 
     @GetMapping("/api/v4/orders")
@@ -92,43 +96,12 @@ public class OrderApiController {
                 .collect(toList());
     }
 
-    @Getter
-    static class OrderDto {
-
-        private Long orderId;
-        private String name;
-        private LocalDateTime orderDate;
-        private OrderStatus orderStatus;
-        private Address address;
-        private List<OrderItemDto> orderItems;  // OrderItem 엔티티를 반환하면 안되고 Dto로 반환해야 한다!!!
-
-        public OrderDto(Order order) {
-            orderId = order.getId();
-            name = order.getMember().getName();
-            orderDate = order.getOrderDate();
-            orderStatus = order.getStatus();
-            address = order.getDelivery().getAddress();
-
-            //order.getOrderItems().stream().forEach(o -> o.getItem().getName());
-            //orderItems = order.getOrderItems();  // OrderItems 엔티티를 직접적으로 반환하면 안된다. -> Dto로 반환해야 됨
-
-            orderItems = order.getOrderItems().stream()
-                    .map(orderItem -> new OrderItemDto(orderItem))
-                    .collect(toList());
-        }
-    }
-
-    @Getter
-    static class OrderItemDto {
-
-        private String itemName;  // 상품명
-        private int orderPrice;  // 주문 가격
-        private int count;  // 주문 수량
-
-        public OrderItemDto(OrderItem orderItem) {
-            itemName = orderItem.getItem().getName();
-            orderPrice = orderItem.getOrderPrice();
-            count = orderItem.getCount();
-        }
+    /**
+     * V5와 같은 쿼리 구조(루트 1번 + IN 1번)를 R2DBC로 스트리밍한다.
+     * - NDJSON으로 한 건씩 내려보내며, 클라이언트가 읽는 속도에 맞춰 DB에서 당겨온다.
+     */
+    @GetMapping(value = "/api/rx/orders", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderQueryDto> ordersRx() {
+        return orderReactiveQueryRepository.streamAllByDto_optimization();
     }
 }
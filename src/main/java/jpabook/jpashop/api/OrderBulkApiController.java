@@ -0,0 +1,59 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.BulkCancelJob;
+import jpabook.jpashop.domain.BulkJobStatus;
+import jpabook.jpashop.service.BulkCancelService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 조건별 대량 주문 취소 API
+ * 예) POST /api/orders/bulk-cancel {"orderDateFrom": "2024-01-01T00:00:00", "orderDateTo": "2024-01-31T23:59:59", "itemId": 3}
+ */
+@RestController
+@RequiredArgsConstructor
+public class OrderBulkApiController {
+
+    private final BulkCancelService bulkCancelService;
+
+    @PostMapping("/api/orders/bulk-cancel")
+    public BulkCancelJobResponse bulkCancel(@RequestBody BulkCancelRequest request) {
+        BulkCancelJob job = bulkCancelService.start(request.getOrderDateFrom(), request.getOrderDateTo(), request.getItemId());
+        return new BulkCancelJobResponse(job);
+    }
+
+    @PostMapping("/api/orders/bulk-cancel/{jobId}/resume")
+    public BulkCancelJobResponse resume(@PathVariable Long jobId) {
+        return new BulkCancelJobResponse(bulkCancelService.resume(jobId));
+    }
+
+    @GetMapping("/api/orders/bulk-cancel/{jobId}")
+    public BulkCancelJobResponse job(@PathVariable Long jobId) {
+        return new BulkCancelJobResponse(bulkCancelService.findJob(jobId));
+    }
+
+    @Data
+    static class BulkCancelRequest {
+        private LocalDateTime orderDateFrom;
+        private LocalDateTime orderDateTo;
+        private Long itemId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class BulkCancelJobResponse {
+        private Long jobId;
+        private BulkJobStatus status;
+        private Long lastOrderId;
+        private long canceledCount;
+        private long skippedCount;
+
+        BulkCancelJobResponse(BulkCancelJob job) {
+            this(job.getId(), job.getStatus(), job.getLastOrderId(), job.getCanceledCount(), job.getSkippedCount());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 주문 목록 응답 (v2, v3, v3.1)
+ * - 엔티티를 OrderDto / OrderItemDto 그래프로 옮겨 담지 않고, 직렬화 시점에 엔티티 필드를 JsonGenerator에 바로 쓴다.
+ * - 응답 형태는 기존 OrderDto와 같다. (엔티티를 그대로 노출하지 않음)
+ * [
+ *     {
+ *         "orderId": 1,
+ *         "name": "userA",
+ *         "orderDate": "...",
+ *         "orderStatus": "ORDER",
+ *         "address": { "city": "서울", "street": "1", "zipcode": "1111" },
+ *         "orderItems": [ { "itemName": "JPA1 BOOK", "orderPrice": 10000, "count": 1 } ]
+ *     }
+ * ]
+ */
+@JsonSerialize(using = OrderListResponse.Serializer.class)
+public class OrderListResponse {
+
+    private final List<Order> orders;
+
+    public OrderListResponse(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    static class Serializer extends StdSerializer<OrderListResponse> {
+
+        Serializer() {
+            super(OrderListResponse.class);
+        }
+
+        @Override
+        public void serialize(OrderListResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            JsonSerializer<Object> dateSerializer = provider.findValueSerializer(LocalDateTime.class);  // 날짜 형식은 ObjectMapper 설정을 따른다.
+
+            gen.writeStartArray();
+            for (Order order : value.orders) {
+                gen.writeStartObject();
+                writeNumber(gen, "orderId", order.getId());
+                gen.writeStringField("name", order.getMember().getName());
+                gen.writeFieldName("orderDate");
+                if (order.getOrderDate() == null) {
+                    gen.writeNull();
+                } else {
+                    dateSerializer.serialize(order.getOrderDate(), gen, provider);
+                }
+                gen.writeStringField("orderStatus", order.getStatus() == null ? null : order.getStatus().name());
+                writeAddress(gen, order.getDelivery().getAddress());
+
+                gen.writeArrayFieldStart("orderItems");
+                for (OrderItem orderItem : order.getOrderItems()) {
+                    gen.writeStartObject();
+                    gen.writeStringField("itemName", orderItem.getItem().getName());  // 상품명
+                    gen.writeNumberField("orderPrice", orderItem.getOrderPrice());  // 주문 가격
+                    gen.writeNumberField("count", orderItem.getCount());  // 주문 수량
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+
+        private static void writeAddress(JsonGenerator gen, Address address) throws IOException {
+            gen.writeFieldName("address");
+            if (address == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject();
+            gen.writeStringField("city", address.getCity());
+            gen.writeStringField("street", address.getStreet());
+            gen.writeStringField("zipcode", address.getZipcode());
+            gen.writeEndObject();
+        }
+
+        private static void writeNumber(JsonGenerator gen, String fieldName, Long value) throws IOException {
+            gen.writeFieldName(fieldName);
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.sales.DailySalesDto;
+import jpabook.jpashop.repository.sales.ItemSalesDto;
+import jpabook.jpashop.repository.sales.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 매출 집계 API
+ * - 주문 원본(findAllByDto_flat)을 가져와 메모리에서 집계하지 않고, 증분 집계 테이블(daily_item_sales)만 조회한다.
+ */
+@RestController
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SalesApiController {
+
+    private final SalesRollupRepository salesRollupRepository;
+
+    @GetMapping("/api/sales/items")
+    public List<ItemSalesDto> itemSales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "status", defaultValue = "ORDER") OrderStatus status) {
+        return salesRollupRepository.findItemSales(from, to, status);
+    }
+
+    @GetMapping("/api/sales/daily")
+    public List<DailySalesDto> dailySales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "status", defaultValue = "ORDER") OrderStatus status) {
+        return salesRollupRepository.findDailySales(from, to, status);
+    }
+}
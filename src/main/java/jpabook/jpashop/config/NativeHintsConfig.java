@@ -0,0 +1,76 @@
+package jpabook.jpashop.config;
+
+import com.fasterxml.jackson.datatype.hibernate5.jakarta.Hibernate5JakartaModule;
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.repository.OrderPlacementDto;
+import jpabook.jpashop.repository.delivery.DeliveryBacklogDto;
+import jpabook.jpashop.repository.order.query.OrderFlatDto;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
+import jpabook.jpashop.repository.sales.DailySalesDto;
+import jpabook.jpashop.repository.sales.ItemSalesDto;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypesScanner;
+
+import java.util.List;
+
+/**
+ * 네이티브 이미지(GraalVM) 힌트 - AOT 처리(processAot) 때만 사용되고 JVM 실행에는 영향 없음
+ * - 엔티티 : Item 단일 테이블 상속(dtype -> Book/Album/Movie 생성), 지연 로딩 대상(Order.member, Order.delivery, OrderItem.item)
+ *   목록은 JPA와 같은 스캐너로 찾은 관리 타입(@Entity, @Embeddable 등)을 그대로 쓰므로 엔티티를 추가해도 고칠 필요 없다.
+ * - JPQL 생성자 표현식(select new ...) DTO : 생성자 호출 + Jackson 직렬화(lombok getter)
+ * - Thymeleaf 템플릿, Hibernate5JakartaModule
+ * 지연 로딩 프록시 클래스는 네이티브 이미지에서 런타임에 만들 수 없으므로 네이티브 빌드에서 바이트코드 향상으로 대신한다. (build.gradle)
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.JpashopRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static final List<Class<?>> QUERY_DTOS = List.of(
+            OrderSimpleQueryDto.class, OrderQueryDto.class, OrderItemQueryDto.class, OrderFlatDto.class,
+            OrderPlacementDto.class, DeliveryBacklogDto.class, ItemSalesDto.class, DailySalesDto.class);
+
+    static class JpashopRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String entity : managedTypes(classLoader)) {
+                hints.reflection().registerType(TypeReference.of(entity),
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,  // protected 기본 생성자
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            for (Class<?> dto : QUERY_DTOS) {
+                hints.reflection().registerType(dto,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            hints.resources().registerPattern("templates/*.html");  // home.html 등
+            hints.resources().registerPattern("templates/**/*.html");
+
+            // 모듈은 직접 생성하지만 직렬화기는 Jackson이 타입 정보로 찾는다.
+            hints.reflection().registerType(Hibernate5JakartaModule.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            for (String serializer : List.of("HibernateSerializers", "HibernateProxySerializer", "PersistentCollectionSerializer")) {
+                hints.reflection().registerType(
+                        TypeReference.of("com.fasterxml.jackson.datatype.hibernate5.jakarta." + serializer),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+
+        private static List<String> managedTypes(ClassLoader classLoader) {
+            return new PersistenceManagedTypesScanner(new DefaultResourceLoader(classLoader))
+                    .scan(JpashopApplication.class.getPackageName())
+                    .getManagedClassNames();
+        }
+    }
+}
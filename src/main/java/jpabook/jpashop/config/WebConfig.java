@@ -0,0 +1,101 @@
+package jpabook.jpashop.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.web.AdaptiveConcurrencyLimiter;
+import jpabook.jpashop.web.AggregateETagInterceptor;
+import jpabook.jpashop.web.AggregateVersions;
+import jpabook.jpashop.web.GcraRateLimiter;
+import jpabook.jpashop.web.LoadSheddingFilter;
+import jpabook.jpashop.web.ResponseCache;
+import jpabook.jpashop.web.ResponseCacheFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static jpabook.jpashop.event.Aggregate.*;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AggregateVersions aggregateVersions;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 매번 재검증하되(no-cache) 변경이 없으면 304로 응답
+        CacheControl revalidate = CacheControl.noCache().cachePrivate();
+
+        // Thymeleaf 화면
+        registry.addInterceptor(new AggregateETagInterceptor(aggregateVersions, revalidate, ITEM))
+                .addPathPatterns("/items");
+        registry.addInterceptor(new AggregateETagInterceptor(aggregateVersions, revalidate, MEMBER))
+                .addPathPatterns("/members");
+        registry.addInterceptor(new AggregateETagInterceptor(aggregateVersions, revalidate, ORDER, MEMBER, ITEM))
+                .addPathPatterns("/orders");
+
+        // API (주문 목록은 회원 이름, 상품 이름을 포함하므로 세 애그리거트 모두에 의존)
+        registry.addInterceptor(new AggregateETagInterceptor(aggregateVersions, revalidate, MEMBER))
+                .addPathPatterns("/api/v2/members");
+        registry.addInterceptor(new AggregateETagInterceptor(aggregateVersions, revalidate, ORDER, MEMBER, ITEM))
+                .addPathPatterns("/api/v2/members/*/orders");
+        registry.addInterceptor(new AggregateETagInterceptor(aggregateVersions, revalidate, ORDER, MEMBER, ITEM))
+                .addPathPatterns("/api/v*/orders", "/api/v*/simple-orders");
+    }
+
+    /**
+     * 조회 비용이 큰 주문 API(v4~v6) 응답 캐시
+     */
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(
+            ResponseCache responseCache,
+            @Value("${jpashop.response-cache.load-wait:5s}") Duration loadWait) {  // 같은 키를 로딩 중인 요청을 기다리는 최대 시간
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(new ResponseCacheFilter(responseCache, loadWait));
+        registration.addUrlPatterns("/api/v4/orders", "/api/v5/orders", "/api/v6/orders");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);  // 캐시 적중은 부하 제한 없이 응답
+        return registration;
+    }
+
+    /**
+     * 요청 수 제한 + 동시 처리 한도 (화면, API 모두)
+     * - 엔티티 그래프 전체를 직렬화하는 주문 조회(v1~v3.1)는 한도의 절반만 쓰고 가장 먼저 거절된다.
+     * - X-Client-Id는 trusted-proxies(게이트웨이 IP)에서 온 요청만 믿는다. 비어 있으면 항상 접속 IP 기준
+     * - 대량 업로드와 스트리밍 조회는 응답 시간으로 한도를 조절하지 않는다.
+     */
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${jpashop.load.read-rate:50}") double readRate,
+            @Value("${jpashop.load.expensive-read-rate:5}") double expensiveReadRate,
+            @Value("${jpashop.load.write-rate:20}") double writeRate,
+            @Value("${jpashop.load.max-clients:100000}") long maxClients,
+            @Value("${jpashop.load.initial-limit:20}") int initialLimit,
+            @Value("${jpashop.load.max-limit:200}") int maxLimit,
+            @Value("${jpashop.load.target-latency:500ms}") Duration targetLatency,
+            @Value("${jpashop.load.write-queue-timeout:200ms}") Duration writeQueueTimeout,
+            @Value("${jpashop.load.expensive-paths:/api/v1/orders,/api/v2/orders,/api/v3/orders,/api/v3.1/orders,/api/analytics/**}") List<String> expensivePaths,
+            @Value("${jpashop.load.endpoint-paths:/api/v2/members/*/orders,/api/v2/members/*,/api/orders/bulk-cancel/*/resume,/api/orders/bulk-cancel/*,/orders/*/cancel,/items/*/edit}") List<String> endpointPaths,
+            @Value("${jpashop.load.latency-excluded-paths:/api/items/bulk-update,/api/deliveries/status-feed,/api/rx/**}") List<String> latencyExcludedPaths,
+            @Value("${jpashop.load.trusted-proxies:}") List<String> trustedProxies) {
+        LoadSheddingFilter filter = new LoadSheddingFilter(
+                new GcraRateLimiter(readRate, (int) Math.ceil(readRate * 2), maxClients),
+                new GcraRateLimiter(expensiveReadRate, (int) Math.ceil(expensiveReadRate * 2), maxClients),
+                new GcraRateLimiter(writeRate, (int) Math.ceil(writeRate * 2), maxClients),
+                new AdaptiveConcurrencyLimiter(initialLimit, 4, maxLimit, targetLatency.toNanos(), 0.9),
+                expensivePaths, endpointPaths, latencyExcludedPaths, Set.copyOf(trustedProxies),
+                writeQueueTimeout.toMillis(), meterRegistry);
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*", "/order", "/orders", "/orders/*", "/items", "/items/*", "/members", "/members/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Setter;
 public class BookForm {
 
     private Long id;
+    private Long version;  // 수정 화면을 열 때의 버전 (그 사이 다른 수정/주문이 있으면 충돌)
 
     private String name;
     private int price;
@@ -6,7 +6,9 @@ import jpabook.jpashop.service.ItemService;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -52,19 +54,24 @@ public class ItemController {
         Book item = (Book) itemService.findOne(itemId);
 
         BookForm form = new BookForm();
+        fillForm(form, item);
+
+        model.addAttribute("form", form);
+        return "items/updateItemForm";
+    }
+
+    private static void fillForm(BookForm form, Book item) {
         form.setId(item.getId());
+        form.setVersion(item.getVersion());
         form.setName(item.getName());
         form.setPrice(item.getPrice());
         form.setStockQuantity(item.getStockQuantity());
         form.setAuthor(item.getAuthor());
         form.setIsbn(item.getIsbn());
-
-        model.addAttribute("form", form);
-        return "items/updateItemForm";
     }
 
     @PostMapping("items/{itemId}/edit")
-    public String updateItem(@PathVariable Long itemId, @ModelAttribute("form") BookForm form){
+    public String updateItem(@PathVariable Long itemId, @ModelAttribute("form") BookForm form, BindingResult result){
 //        Book book = new Book();
 //        book.setId(form.getId());
 //        book.setName(form.getName());
@@ -74,7 +81,14 @@ public class ItemController {
 //        book.setIsbn(form.getIsbn());
 //        itemService.save(book);
 
-        itemService.updateItem(itemId, form.getName(), form.getPrice(), form.getStockQuantity());
+        try {
+            itemService.updateItem(itemId, form.getVersion(), form.getName(), form.getPrice(), form.getStockQuantity());
+        } catch (OptimisticLockingFailureException e) {
+            // 화면을 연 뒤 다른 수정이나 주문(재고 변경)이 있었음 -> 덮어쓰지 않고 최신 값으로 다시 보여준다.
+            fillForm(form, (Book) itemService.findOne(itemId));
+            result.reject("conflict", "다른 사용자가 먼저 변경했습니다. 최신 내용을 확인한 뒤 다시 수정하세요.");
+            return "items/updateItemForm";
+        }
         return "redirect:/items";
     }
 }
@@ -4,21 +4,25 @@ import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderSearch;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.service.IdempotentOrderService;
 import jpabook.jpashop.service.ItemService;
 import jpabook.jpashop.service.MemberService;
 import jpabook.jpashop.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.UUID;
 
 @Controller
 @RequiredArgsConstructor
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotentOrderService idempotentOrderService;
     private final MemberService memberService;
     private final ItemService itemService;
 
@@ -30,16 +34,23 @@ public class OrderController {
 
         model.addAttribute("members", members);
         model.addAttribute("items", items);
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());  // 중복 제출(새로고침, 재시도) 방지
 
         return "/order/orderForm";
     }
 
+    /**
+     * Idempotency-Key 헤더(API 클라이언트) 또는 폼의 idempotencyKey 값이 같으면 주문을 한 번만 만든다.
+     */
     @PostMapping("/order")
     public String order(@RequestParam("memberId") Long memberId,
                         @RequestParam("itemId") Long itemId,
-                        @RequestParam("count") int count) {
+                        @RequestParam("count") int count,
+                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKeyHeader,
+                        @RequestParam(value = "idempotencyKey", required = false) String idempotencyKey) {
 
-        orderService.order(memberId, itemId, count);
+        String key = StringUtils.hasText(idempotencyKeyHeader) ? idempotencyKeyHeader : idempotencyKey;
+        idempotentOrderService.order(key, memberId, itemId, count);
         return "redirect:/orders";
     }
 
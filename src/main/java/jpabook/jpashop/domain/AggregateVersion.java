@@ -0,0 +1,28 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jpabook.jpashop.event.Aggregate;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 애그리거트별 변경 카운터 (여러 인스턴스가 같은 ETag를 만들도록 DB에 둔다)
+ * - 갱신과 조회는 AggregateVersions (JDBC) 로만 한다. 엔티티는 스키마 생성/검증용
+ */
+@Entity
+@Table(name = "aggregate_version")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AggregateVersion {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Aggregate aggregate;
+
+    private long version;
+}
@@ -0,0 +1,61 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 조건별 대량 주문 취소 작업
+ * - 청크를 처리할 때마다 같은 트랜잭션에서 lastOrderId를 저장하므로, 중단되어도 마지막으로 커밋된 청크 다음부터 다시 실행할 수 있다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BulkCancelJob {
+
+    @Id @GeneratedValue
+    @Column(name = "bulk_cancel_job_id")
+    private Long id;
+
+    //==취소 조건==//
+    private LocalDateTime orderDateFrom;
+    private LocalDateTime orderDateTo;
+    private Long itemId;  // null이면 상품 조건 없음
+
+    //==진행 상태==//
+    @Enumerated(EnumType.STRING)
+    private BulkJobStatus status;
+
+    private Long lastOrderId;  // 처리한 마지막 주문 id
+    private long canceledCount;
+    private long skippedCount;  // 배송 완료(COMP)라서 취소하지 못한 주문
+    private LocalDateTime updatedAt;
+
+    //==생성 메서드==//
+    public static BulkCancelJob create(LocalDateTime orderDateFrom, LocalDateTime orderDateTo, Long itemId) {
+        BulkCancelJob job = new BulkCancelJob();
+        job.orderDateFrom = orderDateFrom;
+        job.orderDateTo = orderDateTo;
+        job.itemId = itemId;
+        job.status = BulkJobStatus.RUNNING;
+        job.lastOrderId = 0L;
+        job.updatedAt = LocalDateTime.now();
+        return job;
+    }
+
+    //==비즈니스 로직==//
+    public void advance(Long lastOrderId, long canceled, long skipped) {
+        this.lastOrderId = lastOrderId;
+        this.canceledCount += canceled;
+        this.skippedCount += skipped;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void complete() {
+        this.status = BulkJobStatus.COMPLETED;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
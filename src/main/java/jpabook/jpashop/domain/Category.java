@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import jpabook.jpashop.domain.item.Item;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@BatchSize(size = 100)  // Category.parent 프록시 : 조회한 카테고리들의 부모를 IN 쿼리로 초기화 (전역 default_batch_fetch_size 없음)
 @Getter @Setter
 public class Category {
 
@@ -18,6 +22,7 @@ public class Category {
 
     private String name;
 
+    @Fetch(FetchMode.SUBSELECT)  // 조회한 카테고리 전체의 items를 한 번에 (카테고리 수가 적고 보통 함께 사용)
     @ManyToMany
     @JoinTable(name = "category_item", joinColumns = @JoinColumn(name = "category_id"), inverseJoinColumns = @JoinColumn(name = "item_id"))
     private List<Item> items = new ArrayList<>();
@@ -26,6 +31,7 @@ public class Category {
     @JoinColumn(name = "parent_id")
     private Category parent;
 
+    @Fetch(FetchMode.SUBSELECT)
     @OneToMany(mappedBy = "parent")
     private List<Category> child = new ArrayList<>();
 
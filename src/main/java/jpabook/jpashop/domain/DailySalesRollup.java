@@ -0,0 +1,26 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 일별/상품별/주문상태별 매출 집계
+ * - 주문, 주문 취소 시점에 증분으로 갱신되므로 집계 API는 주문 이력 크기와 상관없이 이 테이블만 읽는다.
+ * - 갱신은 SalesRollupRepository.add (update 후 없으면 insert) 로만 한다. 엔티티는 조회용
+ */
+@Entity
+@Table(name = "daily_item_sales")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailySalesRollup {
+
+    @EmbeddedId
+    private DailySalesRollupId id;
+
+    private long revenue;  // 매출 (주문가격 * 수량 합계)
+    private long quantity;  // 판매 수량
+}
@@ -0,0 +1,34 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DailySalesRollupId implements Serializable {
+
+    private LocalDate salesDate;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    public DailySalesRollupId(LocalDate salesDate, Long itemId, OrderStatus status) {
+        this.salesDate = salesDate;
+        this.itemId = itemId;
+        this.status = status;
+    }
+}
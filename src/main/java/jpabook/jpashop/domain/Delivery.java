@@ -4,8 +4,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
+@BatchSize(size = 1000)  // Order.delivery 프록시
+@Table(indexes = @Index(name = "idx_delivery_status", columnList = "status, delivery_id"))  // READY 적체 keyset 조회
 @Getter
 @Setter
 public class Delivery {
@@ -0,0 +1,39 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 요청의 Idempotency-Key와 그 결과 주문 id
+ * - 키가 PK이므로 서로 다른 서버에서 같은 키로 동시에 요청해도 한 요청만 저장된다.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_key_created_at", columnList = "created_at"))  // 만료 키 정리
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String key;
+
+    private String requestHash;  // 같은 키로 다른 내용을 보냈는지 확인
+    private Long orderId;
+    private LocalDateTime createdAt;
+
+    public static IdempotencyKey create(String key, String requestHash) {
+        IdempotencyKey idempotencyKey = new IdempotencyKey();
+        idempotencyKey.key = key;
+        idempotencyKey.requestHash = requestHash;
+        idempotencyKey.createdAt = LocalDateTime.now();
+        return idempotencyKey;
+    }
+
+    public void complete(Long orderId) {
+        this.orderId = orderId;
+    }
+}
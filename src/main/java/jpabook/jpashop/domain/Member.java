@@ -5,11 +5,14 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_member_name", columnList = "name"))  // 이름 중복 검사, 주문 검색의 회원 이름
+@BatchSize(size = 1000)  // Order.member 프록시 : 주문 목록의 회원을 IN 쿼리로 초기화
 @Getter @Setter
 public class Member {
 
@@ -24,6 +27,7 @@ public class Member {
     private Address address;
 
     @JsonIgnore
+    @BatchSize(size = 20)  // 회원 한 명의 주문이 많을 수 있으므로 작게 (주문 내역은 /api/v2/members/{id}/orders 사용)
     @OneToMany(mappedBy = "member")
     private List<Order> orders = new ArrayList<>();
 }
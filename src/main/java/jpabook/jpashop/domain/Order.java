@@ -5,13 +5,19 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_member_order_date", columnList = "member_id, order_date"),  // 회원 주문 내역, 회원 이름 검색의 조인
+        @Index(name = "idx_orders_status", columnList = "status, order_id, total_amount"),  // 상태 검색/일괄 취소 keyset, 상태별 매출 합계(커버링)
+        @Index(name = "idx_orders_canceled_at", columnList = "canceled_at")  // 분석 스냅샷의 취소 반영 watermark
+})  // 마이그레이션(db/migration)과 같게 유지
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)  // 생성 메서드를 사용하도록 제약
 public class Order {
@@ -24,6 +30,7 @@ public class Order {
     @JoinColumn(name = "member_id")
     private Member member;
 
+    @BatchSize(size = 1000)  // 목록 조회(최대 1000건)의 orderItems를 IN 쿼리 1번으로
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)  //  CascadeType.ALL : order만 persist하면 orderItems 모두 persist 됨. (원래는 각자 해야됨)
     private List<OrderItem> orderItems = new ArrayList<>();
 
@@ -36,15 +43,33 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;  // 주문 상태
 
+    @Version
+    private Long version;  // 동시 취소 등 충돌 감지
+
+    private Long totalAmount;  // 주문 총액 (orderItems 합계를 미리 저장, null이면 아직 백필 전)
+
+    private LocalDateTime canceledAt;  // 취소 시각 (일괄 취소도 함께 기록)
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private boolean archived;  // 보관 테이블에서 복원한 주문 (영속 상태가 아니므로 변경할 수 없음)
+
     //==연관관계 메서드==//
     public void setMember(Member member) {
         this.member = member;
-        member.getOrders().add(this);
+        // 회원의 orders가 이미 로딩된 경우에만 메모리 상태를 맞춘다.
+        // 로딩 전이면 나중에 DB에서 읽을 때 이 주문도 포함되므로, 주문할 때마다 회원의 전체 주문을 로딩할 필요가 없다.
+        // 주의 : 지연 컬렉션 초기화는 자동 flush를 하지 않는다. 같은 트랜잭션에서 flush 전에 member.getOrders()를 처음 읽으면
+        //       아직 insert 되지 않은 이 주문은 빠져 있다. (시퀀스 id라 insert가 flush까지 미뤄짐)
+        if (Hibernate.isInitialized(member) && Hibernate.isInitialized(member.getOrders())) {
+            member.getOrders().add(this);
+        }
     }
 
     public void addOrderItem(OrderItem orderItem) {
         orderItems.add(orderItem);
         orderItem.setOrder(this);
+        totalAmount = (totalAmount == null ? 0L : totalAmount) + orderItem.getTotalPrice();
     }
 
     public void setDelivery(Delivery delivery) {
@@ -56,6 +81,9 @@ public class Order {
     public static Order createOrder(Member member, Delivery delivery, OrderItem... orderItems) {
         Order order = new Order();
         order.setMember(member);
+        if (delivery.getStatus() == null) {
+            delivery.setStatus(DeliveryStatus.READY);
+        }
         order.setDelivery(delivery);
         for (OrderItem orderItem : orderItems) {
             order.addOrderItem(orderItem);
@@ -65,16 +93,47 @@ public class Order {
         return order;
     }
 
+    /**
+     * 보관 테이블의 행으로 주문을 복원 (조회 전용)
+     * - 회원의 orders 컬렉션에는 추가하지 않는다.
+     */
+    public static Order restoreArchived(Long id, Member member, Delivery delivery, LocalDateTime orderDate,
+                                        OrderStatus status, Long version, Long totalAmount, LocalDateTime canceledAt,
+                                        List<OrderItem> orderItems) {
+        Order order = new Order();
+        order.id = id;
+        order.member = member;
+        order.setDelivery(delivery);
+        for (OrderItem orderItem : orderItems) {
+            order.orderItems.add(orderItem);
+            orderItem.setOrder(order);
+        }
+        order.orderDate = orderDate;
+        order.status = status;
+        order.version = version;
+        order.totalAmount = totalAmount;
+        order.canceledAt = canceledAt;
+        order.archived = true;
+        return order;
+    }
+
     //==비즈니스 로직==//
     /**
      * 주문 취소
      */
     public void cancel() {
+        if (archived) {
+            throw new IllegalStateException("보관된 주문은 취소할 수 없습니다.");
+        }
+        if (status == OrderStatus.CANCEL) {
+            throw new IllegalStateException("이미 취소된 주문입니다.");  // 동시 취소의 재시도가 재고/매출을 두 번 되돌리지 않게
+        }
         if (delivery.getStatus() == DeliveryStatus.COMP) {
             throw new IllegalStateException("이미 배송완료된 상품은 취소가 불가능합니다.");
         }
 
         this.setStatus(OrderStatus.CANCEL);
+        this.setCanceledAt(LocalDateTime.now());
         for (OrderItem orderItem : orderItems) {
             orderItem.cancel();
         }
@@ -83,8 +142,13 @@ public class Order {
     //==조회 로직==//
     /**
      * 전체 주문 가격 조회
+     * - 저장된 totalAmount를 사용하므로 orderItems를 로딩하지 않는다.
+     * - 취소해도 주문 금액은 그대로 남고, 매출 집계는 상태(ORDER)로 거른다.
      */
-    public int getTotalPrice() {
-        return orderItems.stream().mapToInt(OrderItem::getTotalPrice).sum();
+    public long getTotalPrice() {
+        if (totalAmount != null) {
+            return totalAmount;
+        }
+        return orderItems.stream().mapToLong(OrderItem::getTotalPrice).sum();  // 백필 전 주문
     }
 }
@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = @Index(name = "idx_order_item_order", columnList = "order_id, item_id, order_price, count"))  // orderItems IN 조회(OrderItemQueryDto 커버링)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)  // 생성 메서드를 사용하도록 제약
 public class OrderItem {
@@ -40,6 +41,29 @@ public class OrderItem {
         return orderItem;
     }
 
+    /**
+     * 재고를 이미 차감한 경우 (ItemRepository.removeStock) - item은 프록시여도 초기화하지 않는다.
+     */
+    public static OrderItem createReservedOrderItem(Item item, int orderPrice, int count) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setItem(item);
+        orderItem.setOrderPrice(orderPrice);
+        orderItem.setCount(count);
+        return orderItem;
+    }
+
+    /**
+     * 보관 테이블의 행으로 주문 상품을 복원 (재고는 건드리지 않음)
+     */
+    public static OrderItem restoreArchived(Long id, Item item, int orderPrice, int count) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setId(id);
+        orderItem.setItem(item);
+        orderItem.setOrderPrice(orderPrice);
+        orderItem.setCount(count);
+        return orderItem;
+    }
+
     //==비즈니스 로직==//
     public void cancel() {
         getItem().addStock(count);  // 재고 수량 원래 복귀
@@ -51,7 +75,7 @@ public class OrderItem {
      * 주문 상품 전체 가격 조회
      * @return
      */
-    public int getTotalPrice() {
-        return getOrderPrice() * getCount();
+    public long getTotalPrice() {
+        return (long) getOrderPrice() * getCount();  // int * int 오버플로 방지
     }
 }
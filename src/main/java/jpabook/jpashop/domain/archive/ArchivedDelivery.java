@@ -0,0 +1,29 @@
+package jpabook.jpashop.domain.archive;
+
+import jakarta.persistence.*;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.DeliveryStatus;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 보관된 배송 (delivery에서 옮겨온 행, 읽기 전용)
+ */
+@Entity
+@Immutable
+@Table(name = "delivery_archive")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArchivedDelivery {
+
+    @Id
+    @Column(name = "delivery_id")
+    private Long id;
+
+    private Address address;
+
+    @Enumerated(EnumType.STRING)
+    private DeliveryStatus status;
+}
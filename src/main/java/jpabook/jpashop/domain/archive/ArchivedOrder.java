@@ -0,0 +1,38 @@
+package jpabook.jpashop.domain.archive;
+
+import jakarta.persistence.*;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 보관된 주문 (orders에서 옮겨온 행, 읽기 전용)
+ * - 연관관계 대신 id 컬럼만 두어서 운영 테이블과 외래 키로 묶이지 않게 한다.
+ */
+@Entity
+@Immutable
+@Table(name = "orders_archive")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArchivedOrder {
+
+    @Id
+    @Column(name = "order_id")
+    private Long id;
+
+    private Long memberId;
+    private Long deliveryId;
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private Long version;
+    private Long totalAmount;
+    private LocalDateTime canceledAt;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,27 @@
+package jpabook.jpashop.domain.archive;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 보관된 주문 상품 (order_item에서 옮겨온 행, 읽기 전용)
+ */
+@Entity
+@Immutable
+@Table(name = "order_item_archive", indexes = @Index(name = "idx_order_item_archive_order", columnList = "order_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArchivedOrderItem {
+
+    @Id
+    @Column(name = "order_item_id")
+    private Long id;
+
+    private Long orderId;
+    private Long itemId;
+    private int orderPrice;
+    private int count;
+}
@@ -5,11 +5,13 @@ import jpabook.jpashop.domain.Category;
 import jpabook.jpashop.exception.NotEnoughStockException;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@BatchSize(size = 1000)  // OrderItem.item 프록시 : 한 페이지의 주문 상품(최대 수천 개)을 적은 IN 쿼리로 초기화
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "dtype")
 @Getter @Setter
@@ -24,6 +26,9 @@ public abstract class Item {
     private int price;
     private int stockQuantity;
 
+    @Version
+    private Long version;  // 동시 수정(관리자 수정, 주문/취소에 의한 재고 변경) 충돌 감지
+
     @ManyToMany(mappedBy = "items")
     private List<Category> categories = new ArrayList<>();
 
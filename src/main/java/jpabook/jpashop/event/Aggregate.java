@@ -0,0 +1,8 @@
+package jpabook.jpashop.event;
+
+/**
+ * 변경 추적 단위 (캐시/ETag 무효화 기준)
+ */
+public enum Aggregate {
+    ITEM, MEMBER, ORDER
+}
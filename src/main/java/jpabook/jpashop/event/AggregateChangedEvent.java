@@ -0,0 +1,20 @@
+package jpabook.jpashop.event;
+
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 서비스 계층에서 데이터를 변경했을 때 발행하는 이벤트
+ * - 리스너는 @TransactionalEventListener(AFTER_COMMIT)로 받아서 커밋된 변경만 반영한다.
+ */
+@Getter
+public class AggregateChangedEvent {
+
+    private final Set<Aggregate> aggregates;
+
+    public AggregateChangedEvent(Aggregate first, Aggregate... rest) {
+        this.aggregates = EnumSet.of(first, rest);
+    }
+}
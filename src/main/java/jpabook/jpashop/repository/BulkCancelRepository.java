@@ -0,0 +1,122 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jpabook.jpashop.domain.BulkCancelJob;
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 대량 주문 취소용 조회/벌크 연산
+ */
+@Repository
+@RequiredArgsConstructor
+public class BulkCancelRepository {
+
+    private final EntityManager em;
+
+    public void save(BulkCancelJob job) {
+        em.persist(job);
+    }
+
+    public BulkCancelJob findOne(Long jobId) {
+        return em.find(BulkCancelJob.class, jobId);
+    }
+
+    /**
+     * 작업 진행 정보를 잠그고 조회 (같은 작업을 동시에 재개해도 청크가 중복 처리되지 않음)
+     */
+    public BulkCancelJob findOneForUpdate(Long jobId) {
+        return em.find(BulkCancelJob.class, jobId, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /**
+     * 조건에 맞는 주문 id를 lastOrderId 다음부터 limit 개 조회 (keyset)
+     */
+    public List<Long> findCandidateOrderIds(BulkCancelJob job, int limit) {
+        String jpql = "select o.id from Order o " +
+                "where o.status = :status and o.id > :lastOrderId " +
+                "and o.orderDate between :from and :to";
+        if (job.getItemId() != null) {
+            jpql += " and exists (select oi.id from OrderItem oi where oi.order = o and oi.item.id = :itemId)";
+        }
+        var query = em.createQuery(jpql + " order by o.id", Long.class)
+                .setParameter("status", OrderStatus.ORDER)
+                .setParameter("lastOrderId", job.getLastOrderId())
+                .setParameter("from", job.getOrderDateFrom())
+                .setParameter("to", job.getOrderDateTo())
+                .setMaxResults(limit);
+        if (job.getItemId() != null) {
+            query.setParameter("itemId", job.getItemId());
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * 아직 ORDER 상태인 주문을 잠그고, 그 중 배송 완료(COMP)가 아닌 주문 id만 반환 (Order.cancel()과 같은 규칙)
+     */
+    public List<Long> lockCancellableOrderIds(List<Long> orderIds) {
+        List<Long> locked = em.createQuery(
+                        "select o.id from Order o where o.id in :orderIds and o.status = :status", Long.class)
+                .setParameter("orderIds", orderIds)
+                .setParameter("status", OrderStatus.ORDER)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (locked.isEmpty()) {
+            return locked;
+        }
+        return em.createQuery(
+                        "select o.id from Order o join o.delivery d " +
+                                "where o.id in :orderIds and (d.status is null or d.status <> :comp)", Long.class)
+                .setParameter("orderIds", locked)
+                .setParameter("comp", DeliveryStatus.COMP)
+                .getResultList();
+    }
+
+    /**
+     * 상품별 복구할 재고 수량 [itemId, sum(count)]
+     */
+    public List<Object[]> sumCountByItem(List<Long> orderIds) {
+        return em.createQuery(
+                        "select oi.item.id, sum(oi.count) from OrderItem oi " +
+                                "where oi.order.id in :orderIds " +
+                                "group by oi.item.id", Object[].class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    /**
+     * 매출 집계 이동량 [주문일, itemId, sum(가격*수량), sum(수량)]
+     */
+    public List<Object[]> sumSalesByDateAndItem(List<Long> orderIds) {
+        return em.createQuery(
+                        "select cast(o.orderDate as LocalDate), oi.item.id, sum(cast(oi.orderPrice as Long) * oi.count), sum(oi.count) " +
+                                "from OrderItem oi join oi.order o " +
+                                "where o.id in :orderIds " +
+                                "group by cast(o.orderDate as LocalDate), oi.item.id", Object[].class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    public void addStock(Long itemId, long quantity) {
+        em.createQuery("update Item i set i.stockQuantity = i.stockQuantity + :quantity, i.version = coalesce(i.version, 0) + 1 " +
+                        "where i.id = :itemId")
+                .setParameter("quantity", (int) quantity)
+                .setParameter("itemId", itemId)
+                .executeUpdate();
+    }
+
+    public int cancelOrders(List<Long> orderIds) {
+        return em.createQuery("update Order o set o.status = :status, o.canceledAt = :canceledAt, " +
+                        "o.version = coalesce(o.version, 0) + 1 where o.id in :orderIds")
+                .setParameter("status", OrderStatus.CANCEL)
+                .setParameter("canceledAt", LocalDateTime.now())
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,33 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.IdempotencyKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 키를 바로 insert 한다. (flush) 이미 있으면 예외
+     */
+    public void insert(IdempotencyKey idempotencyKey) {
+        em.persist(idempotencyKey);
+        em.flush();
+    }
+
+    public IdempotencyKey findOne(String key) {
+        return em.find(IdempotencyKey.class, key);
+    }
+
+    public int deleteCreatedBefore(LocalDateTime cutoff) {
+        return em.createQuery("delete from IdempotencyKey k where k.createdAt < :cutoff")
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+}
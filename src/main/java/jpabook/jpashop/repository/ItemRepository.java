@@ -3,6 +3,7 @@ package jpabook.jpashop.repository;
 import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.item.Item;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -34,6 +35,32 @@ public class ItemRepository {
         return em.find(Item.class, id);
     }
 
+    /**
+     * 조회 없이 id만 가진 프록시 (연관관계 설정용)
+     */
+    public Item getReference(Long id) {
+        return em.getReference(Item.class, id);
+    }
+
+    /**
+     * 재고 차감 (엔티티를 로딩하지 않고 update 한 번으로 처리)
+     * - 재고가 부족하면 갱신하지 않고 0을 반환한다. 행 잠금 안에서 비교 후 차감하므로 동시 주문에도 재고가 음수가 되지 않는다.
+     * - 이미 영속성 컨텍스트에 로딩된 상품이 있으면 변경된 재고/버전을 다시 읽어서 맞춘다.
+     */
+    public int removeStock(Long id, int quantity) {
+        int updated = em.createQuery("update Item i set i.stockQuantity = i.stockQuantity - :quantity, " +
+                        "i.version = coalesce(i.version, 0) + 1 " +
+                        "where i.id = :id and i.stockQuantity >= :quantity")
+                .setParameter("quantity", quantity)
+                .setParameter("id", id)
+                .executeUpdate();
+        Item item = em.getReference(Item.class, id);
+        if (updated > 0 && Hibernate.isInitialized(item)) {
+            em.refresh(item);
+        }
+        return updated;
+    }
+
     /**
      * 상품 전체 조회
      * @return
@@ -21,6 +21,13 @@ public class MemberRepository {
         return em.find(Member.class, id);
     }
 
+    /**
+     * 조회 없이 id만 가진 프록시 (연관관계 설정용)
+     */
+    public Member getReference(Long id) {
+        return em.getReference(Member.class, id);
+    }
+
     public List<Member> findAll() {
         return em.createQuery("SELECT m FROM Member m", Member.class).getResultList();
     }
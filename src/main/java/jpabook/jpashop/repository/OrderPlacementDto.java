@@ -0,0 +1,21 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Address;
+import lombok.Data;
+
+/**
+ * 주문 생성용 조회 결과 (회원 주소 + 상품 가격/재고)
+ */
+@Data
+public class OrderPlacementDto {
+
+    private Address address;
+    private int price;
+    private int stockQuantity;
+
+    public OrderPlacementDto(Address address, int price, int stockQuantity) {
+        this.address = address;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+    }
+}
@@ -3,9 +3,16 @@ package jpabook.jpashop.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import jpabook.jpashop.domain.Delivery;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
 import jpabook.jpashop.domain.OrderSearch;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.archive.ArchivedDelivery;
+import jpabook.jpashop.domain.archive.ArchivedOrder;
+import jpabook.jpashop.domain.archive.ArchivedOrderItem;
+import jpabook.jpashop.domain.item.Item;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
@@ -23,8 +30,57 @@ public class OrderRepository {
         em.persist(order);
     }
 
+    /**
+     * 운영 테이블에 없으면 보관 테이블에서 복원한다. (보관된 주문은 archived = true, 변경 불가)
+     */
     public Order findOne(Long id) {
-        return em.find(Order.class, id);
+        Order order = em.find(Order.class, id);
+        if (order != null) {
+            return order;
+        }
+        return findArchived(id);
+    }
+
+    private Order findArchived(Long id) {
+        ArchivedOrder archived = em.find(ArchivedOrder.class, id);
+        if (archived == null) {
+            return null;
+        }
+
+        ArchivedDelivery archivedDelivery = em.find(ArchivedDelivery.class, archived.getDeliveryId());
+        Delivery delivery = new Delivery();
+        delivery.setId(archived.getDeliveryId());
+        if (archivedDelivery != null) {
+            delivery.setAddress(archivedDelivery.getAddress());
+            delivery.setStatus(archivedDelivery.getStatus());
+        }
+
+        List<OrderItem> orderItems = em.createQuery(
+                        "select a from ArchivedOrderItem a where a.orderId = :orderId order by a.id", ArchivedOrderItem.class)
+                .setParameter("orderId", id)
+                .getResultList().stream()
+                .map(a -> OrderItem.restoreArchived(a.getId(), em.getReference(Item.class, a.getItemId()),
+                        a.getOrderPrice(), a.getCount()))
+                .toList();
+
+        return Order.restoreArchived(archived.getId(), em.getReference(Member.class, archived.getMemberId()), delivery,
+                archived.getOrderDate(), archived.getStatus(), archived.getVersion(), archived.getTotalAmount(),
+                archived.getCanceledAt(), orderItems);
+    }
+
+    /**
+     * 주문 생성에 필요한 값(회원 주소, 상품 가격/재고)만 한 번에 조회, 없으면 null
+     */
+    public OrderPlacementDto findPlacement(Long memberId, Long itemId) {
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.OrderPlacementDto(m.address, i.price, i.stockQuantity) " +
+                                "from Member m, Item i " +
+                                "where m.id = :memberId and i.id = :itemId", OrderPlacementDto.class)
+                .setParameter("memberId", memberId)
+                .setParameter("itemId", itemId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
     }
 
     /**
@@ -116,6 +172,25 @@ public class OrderRepository {
                 .getResultList();
     }
 
+    /**
+     * findAllwithItem()의 페이징 버전 : 주문 id를 먼저 페이징한 뒤 그 주문들만 fetch join (TwoPhasePaging)
+     */
+    public List<Order> findAllWithItem(int offset, int limit) {
+        return TwoPhasePaging.fetchPage(
+                em.createQuery("select o.id from Order o order by o.id", Long.class),
+                offset, limit,
+                ids -> em.createQuery(
+                                "select distinct o from Order o " +
+                                        "join fetch o.member m " +
+                                        "join fetch o.delivery d " +
+                                        "left join fetch o.orderItems oi " +
+                                        "left join fetch oi.item i " +
+                                        "where o.id in :ids", Order.class)
+                        .setParameter("ids", ids)
+                        .getResultList(),
+                Order::getId);
+    }
+
     public List<Order> findAllWithMemberDelivery(int offset, int limit) {
         return em.createQuery(
                 "select o from Order o " +
@@ -127,6 +202,41 @@ public class OrderRepository {
                 .getResultList();
     }
 
+    /**
+     * 상태별 매출 합계 - 주문마다 저장된 totalAmount 컬럼 하나만 합산한다.
+     */
+    public long sumTotalAmount(OrderStatus status) {
+        return em.createQuery(
+                        "select coalesce(sum(o.totalAmount), 0) from Order o where o.status = :status", Long.class)
+                .setParameter("status", status)
+                .getSingleResult();
+    }
+
+    /**
+     * totalAmount가 비어있는 주문의 id 범위 [min, max], 없으면 null
+     */
+    public Long[] findIdRangeWithoutTotalAmount() {
+        Object[] range = em.createQuery(
+                        "select min(o.id), max(o.id) from Order o where o.totalAmount is null", Object[].class)
+                .getSingleResult();
+        if (range[0] == null) {
+            return null;
+        }
+        return new Long[]{(Long) range[0], (Long) range[1]};
+    }
+
+    /**
+     * id 범위 안에서 totalAmount가 비어있는 주문을 orderItems 합계로 채운다. (벌크 연산)
+     */
+    public int backfillTotalAmount(Long fromId, Long toId) {
+        return em.createQuery(
+                        "update Order o set o.totalAmount = " +
+                                "(select coalesce(sum(cast(oi.orderPrice as Long) * oi.count), 0) from OrderItem oi where oi.order = o) " +
+                                "where o.id between :fromId and :toId and o.totalAmount is null")
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate();
+    }
 
     /**
      * 해결 방안 -> QueryDSL을 사용하면 간단하게 해결 가능
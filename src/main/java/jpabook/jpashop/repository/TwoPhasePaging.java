@@ -0,0 +1,52 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 컬렉션 fetch join 페이징
+ * - 컬렉션을 fetch join 한 쿼리에 setFirstResult/setMaxResults를 걸면 하이버네이트가 전체를 읽어서 메모리에서 자른다.
+ * - 1단계 : id만 정렬해서 페이징 (인덱스만 읽음)
+ * - 2단계 : 그 id들로 fetch join 쿼리 실행 -> 로딩되는 엔티티는 limit 개를 넘지 않는다.
+ * - 2단계 결과는 1단계의 id 순서대로 다시 정렬해서 반환한다.
+ */
+public final class TwoPhasePaging {
+
+    private TwoPhasePaging() {
+    }
+
+    /**
+     * @param idQuery    정렬된 id 조회 쿼리 (페이징은 여기서 설정)
+     * @param fetchByIds id 목록으로 fetch join 조회 (순서, 중복 상관 없음)
+     * @param idOf       엔티티의 id
+     */
+    public static <T, ID> List<T> fetchPage(TypedQuery<ID> idQuery, int offset, int limit,
+                                            Function<List<ID>, List<T>> fetchByIds, Function<T, ID> idOf) {
+        List<ID> ids = idQuery
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<ID, T> byId = new HashMap<>(ids.size() * 2);
+        for (T entity : fetchByIds.apply(ids)) {
+            byId.put(idOf.apply(entity), entity);
+        }
+
+        List<T> result = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {  // 두 쿼리 사이에 삭제된 경우
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+}
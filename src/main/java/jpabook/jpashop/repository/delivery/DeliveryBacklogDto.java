@@ -0,0 +1,22 @@
+package jpabook.jpashop.repository.delivery;
+
+import jpabook.jpashop.domain.Address;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class DeliveryBacklogDto {
+
+    private Long deliveryId;
+    private Long orderId;
+    private LocalDateTime orderDate;
+    private Address address;
+
+    public DeliveryBacklogDto(Long deliveryId, Long orderId, LocalDateTime orderDate, Address address) {
+        this.deliveryId = deliveryId;
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.address = address;
+    }
+}
@@ -0,0 +1,42 @@
+package jpabook.jpashop.repository.delivery;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class DeliveryRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 배송 대기(READY) 목록을 delivery_id 순으로 afterId 다음부터 limit 개 조회 (keyset)
+     * - idx_delivery_status(status, delivery_id) 범위 조회 후 주문은 delivery_id로 조인한다.
+     * - 취소된 주문의 배송은 제외
+     */
+    public List<DeliveryBacklogDto> findReadyBacklog(Long afterId, int limit) {
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.delivery.DeliveryBacklogDto(d.id, o.id, o.orderDate, d.address) " +
+                                "from Delivery d " +
+                                "join d.order o " +
+                                "where d.status = :status and d.id > :afterId " +
+                                "and o.status = :orderStatus " +
+                                "order by d.id", DeliveryBacklogDto.class)
+                .setParameter("status", DeliveryStatus.READY)
+                .setParameter("afterId", afterId == null ? 0L : afterId)
+                .setParameter("orderStatus", OrderStatus.ORDER)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public long countByStatus(DeliveryStatus status) {
+        return em.createQuery("select count(d) from Delivery d where d.status = :status", Long.class)
+                .setParameter("status", status)
+                .getSingleResult();
+    }
+}
@@ -1,22 +1,62 @@
 package jpabook.jpashop.repository.order.query;
 
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.EntityManager;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 @Repository
-@RequiredArgsConstructor
-public class OrderQueryRepository {
+public class OrderQueryRepository implements DisposableBean {
     /**
      * 화면과 밀접한 것들은 쿼리랑 밀접한 것들이 많음. -> query 에 넣음
      * 핵심 비즈니스 로직들을 참조하면서 진행 -> 관심사 분리
      */
 
     private final EntityManager em;
+    private final int orderIdChunkSize;  // IN 절 하나에 넣을 최대 주문 id 수
+
+    // orderItems 청크 병렬 조회 전용 (DataSource, Executor를 빈으로 등록하면 스프링 기본 설정이 빠지므로 내부에서 관리)
+    private final HikariDataSource chunkDataSource;
+    private final NamedParameterJdbcTemplate chunkJdbcTemplate;
+    private final ExecutorService chunkExecutor;
+
+    public OrderQueryRepository(EntityManager em,
+                                DataSourceProperties dataSourceProperties,
+                                @Value("${jpashop.order-query.chunk-size:1000}") int orderIdChunkSize,
+                                @Value("${jpashop.order-query.parallelism:4}") int parallelism,
+                                @Value("${jpashop.order-query.connection-timeout:3s}") Duration connectionTimeout) {
+        this.em = em;
+        this.orderIdChunkSize = orderIdChunkSize;
+
+        this.chunkDataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.chunkDataSource.setPoolName("order-item-query");
+        this.chunkDataSource.setReadOnly(true);
+        this.chunkDataSource.setMaximumPoolSize(parallelism);  // 작업 스레드 수와 같으므로 스레드가 커넥션을 기다리지 않는다.
+        this.chunkDataSource.setMinimumIdle(0);
+        this.chunkDataSource.setConnectionTimeout(connectionTimeout.toMillis());
+        this.chunkJdbcTemplate = new NamedParameterJdbcTemplate(chunkDataSource);
+        this.chunkExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "order-item-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
     public List<OrderQueryDto> findOrderQueryDtos() {
         // 루트 조회(ToOne 코드를 모두 한 번에 조회)
@@ -54,8 +94,8 @@ public class OrderQueryRepository {
         // 루트 조회(toOne 코드를 모두 한 번에 조회)
         List<OrderQueryDto> result = findOrders();
 
-        // 현재 주문서와 관련된 orderItems를 한번에 조회
-        Map<Long, List<OrderItemQueryDto>> orderItemMap = findOrderItemMap(toOrderIds(result));
+        // 현재 주문서와 관련된 orderItems를 한번에 조회 (주문이 많으면 청크로 나눠서 조회)
+        Map<Long, List<OrderItemQueryDto>> orderItemMap = findOrderItemMapInChunks(toOrderIds(result));
 
         // 루프를 돌면서 컬렉션 추가(추가 쿼리 실행 X)
         result.forEach(o -> o.setOrderItems(orderItemMap.get(o.getOrderId())));
@@ -63,6 +103,48 @@ public class OrderQueryRepository {
         return result;
     }
 
+    /**
+     * orderIds를 orderIdChunkSize 단위로 나눠서 IN 쿼리를 동시에 실행한다. (DB의 IN 목록 크기 제한 회피)
+     * - 청크는 전용 읽기 전용 풀(order-item-query, 크기 = parallelism)의 커넥션에서 조회한다.
+     *   요청 스레드가 쥔 메인 풀 커넥션과 별개이므로, 동시 요청이 메인 풀 크기만큼 몰려도 서로의 커넥션을 기다리며 멈추지 않는다.
+     * - 청크마다 다른 커넥션이므로 루트 조회와 같은 시점의 스냅샷은 아니다. (조회 화면용)
+     * - 각 청크는 서로 다른 주문 id만 다루므로 결과 Map은 호출 스레드에서 합치기만 하면 된다.
+     */
+    private Map<Long, List<OrderItemQueryDto>> findOrderItemMapInChunks(List<Long> orderIds) {
+        if (orderIds.size() <= orderIdChunkSize) {
+            return findOrderItemMap(orderIds);  // 청크 1개면 현재 커넥션에서 바로 조회
+        }
+
+        List<CompletableFuture<List<OrderItemQueryDto>>> futures = new ArrayList<>();
+        for (int from = 0; from < orderIds.size(); from += orderIdChunkSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + orderIdChunkSize, orderIds.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> findOrderItemsInChunk(chunk), chunkExecutor));
+        }
+
+        Map<Long, List<OrderItemQueryDto>> orderItemMap = new HashMap<>(orderIds.size() * 2);
+        try {
+            futures.forEach(f -> f.join().forEach(orderItem ->
+                    orderItemMap.computeIfAbsent(orderItem.getOrderId(), id -> new ArrayList<>()).add(orderItem)));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return orderItemMap;
+    }
+
+    private List<OrderItemQueryDto> findOrderItemsInChunk(List<Long> orderIds) {
+        return chunkJdbcTemplate.query(
+                "select oi.order_id, i.name, oi.order_price, oi.count " +
+                        "from order_item oi " +
+                        "join item i on i.item_id = oi.item_id " +
+                        "where oi.order_id in (:orderIds)",
+                Map.of("orderIds", orderIds),
+                (rs, rowNum) -> new OrderItemQueryDto(rs.getLong("order_id"), rs.getString("name"),
+                        rs.getInt("order_price"), rs.getInt("count")));
+    }
+
     private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
         List<OrderItemQueryDto> orderItems = em.createQuery(
                         "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count) " +
@@ -84,6 +166,38 @@ public class OrderQueryRepository {
         return orderIds;
     }
 
+    /**
+     * 회원 주문 내역 (최신순, keyset 페이징)
+     * - idx_orders_member_order_date(member_id, order_date)를 역순으로 읽으면서 limit 개에서 멈추므로 전체 주문 수와 상관없이 일정하다.
+     * - beforeOrderDate/beforeOrderId는 이전 페이지 마지막 주문의 값 (첫 페이지는 null)
+     * - 페이지의 orderItems는 IN 쿼리 1번으로 조회
+     */
+    public List<OrderQueryDto> findMemberOrderHistory(Long memberId, LocalDateTime beforeOrderDate, Long beforeOrderId, int limit) {
+        String jpql = "SELECT new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address) " +
+                "FROM Order o " +
+                "JOIN o.member m " +
+                "JOIN o.delivery d " +
+                "WHERE m.id = :memberId";
+        if (beforeOrderDate != null) {
+            jpql += " AND (o.orderDate < :beforeOrderDate OR (o.orderDate = :beforeOrderDate AND o.id < :beforeOrderId))";
+        }
+        TypedQuery<OrderQueryDto> query = em.createQuery(jpql + " ORDER BY o.orderDate DESC, o.id DESC", OrderQueryDto.class)
+                .setParameter("memberId", memberId)
+                .setMaxResults(limit);
+        if (beforeOrderDate != null) {
+            query.setParameter("beforeOrderDate", beforeOrderDate)
+                    .setParameter("beforeOrderId", beforeOrderId == null ? Long.MAX_VALUE : beforeOrderId);
+        }
+        List<OrderQueryDto> result = query.getResultList();
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, List<OrderItemQueryDto>> orderItemMap = findOrderItemMap(toOrderIds(result));
+        result.forEach(o -> o.setOrderItems(orderItemMap.get(o.getOrderId())));
+        return result;
+    }
+
     public List<OrderFlatDto> findAllByDto_flat() {
         return em.createQuery(
                 "select new jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count) " +
@@ -94,4 +208,10 @@ public class OrderQueryRepository {
                         "join oi.item i", OrderFlatDto.class)
                 .getResultList();
     }
+
+    @Override
+    public void destroy() {
+        chunkExecutor.shutdown();
+        chunkDataSource.close();
+    }
 }
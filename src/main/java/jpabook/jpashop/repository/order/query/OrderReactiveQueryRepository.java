@@ -0,0 +1,140 @@
+package jpabook.jpashop.repository.order.query;
+
+import io.r2dbc.pool.PoolingConnectionFactoryProvider;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * findAllByDto_optimization()의 R2DBC 버전 (읽기 전용)
+ * - 루트(주문)를 WINDOW_SIZE씩 keyset으로 읽고, 그 윈도우의 orderItems를 IN 쿼리 1번으로 조회한다.
+ * - 한 스트림은 커넥션 1개만 쓴다. (루트 결과를 다 읽은 뒤 같은 커넥션에서 orderItems 조회)
+ *   스트림마다 커넥션을 2개씩 잡으면 동시 요청이 풀 크기만큼 몰렸을 때 모두 두 번째 커넥션을 기다리며 멈춘다.
+ * - 풀에서 커넥션을 기다리는 시간은 max-acquire-time으로 제한한다.
+ * - 구독자가 요청한 만큼만 다음 윈도우를 읽으므로(backpressure) 요청당 스레드를 점유하지 않는다.
+ * - ConnectionFactory를 빈으로 등록하면 DataSource 자동 설정이 꺼지므로 이 저장소 안에서만 생성해서 사용한다.
+ */
+@Repository
+public class OrderReactiveQueryRepository implements DisposableBean {
+
+    private static final int WINDOW_SIZE = 100;
+
+    private final ConnectionFactory connectionFactory;
+
+    public OrderReactiveQueryRepository(@Value("${jpashop.r2dbc.url:r2dbc:pool:h2:mem:///jpashop}") String url,
+                                        @Value("${spring.datasource.username:sa}") String username,
+                                        @Value("${spring.datasource.password:}") String password,
+                                        @Value("${jpashop.r2dbc.max-acquire-time:5s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .option(PoolingConnectionFactoryProvider.MAX_ACQUIRE_TIME, maxAcquireTime)  // r2dbc:pool: URL에만 적용
+                .build();
+        this.connectionFactory = ConnectionFactories.get(options);
+    }
+
+    public Flux<OrderQueryDto> streamAllByDto_optimization() {
+        // 커넥션 1개로 윈도우를 차례로 조회 (윈도우의 두 쿼리가 끝난 뒤에 다음 윈도우를 조회)
+        return Flux.usingWhen(connectionFactory.create(),
+                connection -> findWindow(connection, 0L)
+                        .expand(window -> window.size() < WINDOW_SIZE
+                                ? Mono.empty()
+                                : findWindow(connection, window.get(window.size() - 1).getOrderId()))
+                        .flatMapIterable(window -> window),
+                Connection::close);
+    }
+
+    private Mono<List<OrderQueryDto>> findWindow(Connection connection, long afterOrderId) {
+        return findOrders(connection, afterOrderId)
+                .collectList()
+                .flatMap(orders -> orders.isEmpty() ? Mono.just(orders) : attachOrderItems(connection, orders));
+    }
+
+    private Flux<OrderQueryDto> findOrders(Connection connection, long afterOrderId) {
+        Statement statement = connection.createStatement(
+                "select o.order_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode " +
+                        "from orders o " +
+                        "join member m on m.member_id = o.member_id " +
+                        "join delivery d on d.delivery_id = o.delivery_id " +
+                        "where o.order_id > $1 " +
+                        "order by o.order_id " +
+                        "limit " + WINDOW_SIZE);
+        statement.bind(0, afterOrderId);
+        return Flux.from(statement.execute())
+                .flatMap(result -> result.map(OrderReactiveQueryRepository::toOrderQueryDto));
+    }
+
+    private Mono<List<OrderQueryDto>> attachOrderItems(Connection connection, List<OrderQueryDto> orders) {
+        // 현재 윈도우의 주문과 관련된 orderItems를 한번에 조회 (같은 커넥션)
+        return findOrderItems(connection, toOrderIds(orders))
+                .collect(Collectors.groupingBy(OrderItemQueryDto::getOrderId))
+                .map(orderItemMap -> {
+                    orders.forEach(o -> o.setOrderItems(orderItemMap.get(o.getOrderId())));
+                    return orders;
+                });
+    }
+
+    private Flux<OrderItemQueryDto> findOrderItems(Connection connection, List<Long> orderIds) {
+        String placeholders = IntStream.rangeClosed(1, orderIds.size())
+                .mapToObj(i -> "$" + i)
+                .collect(Collectors.joining(", "));
+        Statement statement = connection.createStatement(
+                "select oi.order_id, i.name, oi.order_price, oi.count " +
+                        "from order_item oi " +
+                        "join item i on i.item_id = oi.item_id " +
+                        "where oi.order_id in (" + placeholders + ")");
+        for (int i = 0; i < orderIds.size(); i++) {
+            statement.bind(i, orderIds.get(i));
+        }
+        return Flux.from(statement.execute())
+                .flatMap(result -> result.map(OrderReactiveQueryRepository::toOrderItemQueryDto));
+    }
+
+    private static OrderQueryDto toOrderQueryDto(Readable row) {
+        return new OrderQueryDto(
+                row.get("order_id", Long.class),
+                row.get("name", String.class),
+                row.get("order_date", LocalDateTime.class),
+                OrderStatus.valueOf(row.get("status", String.class)),
+                new Address(row.get("city", String.class), row.get("street", String.class), row.get("zipcode", String.class)));
+    }
+
+    private static OrderItemQueryDto toOrderItemQueryDto(Readable row) {
+        return new OrderItemQueryDto(
+                row.get("order_id", Long.class),
+                row.get("name", String.class),
+                row.get("order_price", Integer.class),
+                row.get("count", Integer.class));
+    }
+
+    private static List<Long> toOrderIds(List<OrderQueryDto> orders) {
+        return orders.stream()
+                .map(OrderQueryDto::getOrderId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionFactory instanceof Disposable disposable) {
+            disposable.dispose();  // r2dbc:pool: URL이면 ConnectionPool이 생성된다.
+        }
+    }
+}
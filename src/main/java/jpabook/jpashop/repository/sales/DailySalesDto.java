@@ -0,0 +1,19 @@
+package jpabook.jpashop.repository.sales;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class DailySalesDto {
+
+    private LocalDate salesDate;
+    private long revenue;
+    private long quantity;
+
+    public DailySalesDto(LocalDate salesDate, Long revenue, Long quantity) {
+        this.salesDate = salesDate;
+        this.revenue = revenue;
+        this.quantity = quantity;
+    }
+}
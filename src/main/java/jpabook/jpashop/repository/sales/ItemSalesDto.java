@@ -0,0 +1,19 @@
+package jpabook.jpashop.repository.sales;
+
+import lombok.Data;
+
+@Data
+public class ItemSalesDto {
+
+    private Long itemId;
+    private String itemName;
+    private long revenue;
+    private long quantity;
+
+    public ItemSalesDto(Long itemId, String itemName, Long revenue, Long quantity) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.revenue = revenue;
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,119 @@
+package jpabook.jpashop.repository.sales;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class SalesRollupRepository {
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String UPSERT =
+            "merge into daily_item_sales t " +
+                    "using (select ? as sales_date, ? as item_id, ? as status) s " +
+                    "on (t.sales_date = s.sales_date and t.item_id = s.item_id and t.status = s.status) " +
+                    "when matched then update set revenue = t.revenue + ?, quantity = t.quantity + ? " +
+                    "when not matched then insert (sales_date, item_id, status, revenue, quantity) " +
+                    "values (s.sales_date, s.item_id, s.status, ?, ?)";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    /**
+     * 집계 행에 증분을 더한다. 행이 없으면 새로 만든다. (현재 트랜잭션의 커넥션에서 바로 실행)
+     * - 표준 MERGE 한 문장으로 처리한다. 있는 행은 행 잠금 안에서 더하므로 동시 주문이 서로의 증분을 덮어쓰지 않는다.
+     * - 행이 없을 때 두 주문이 동시에 MERGE 하면 한쪽은 PK 중복이 난다. (H2, PostgreSQL 모두 MERGE가 insert 경합을 막지 않음)
+     *   PostgreSQL은 실패한 문장 이후 트랜잭션 전체가 중단되므로 세이브포인트로 되돌린 뒤 한 번 더 MERGE 한다.
+     *   (두 번째는 먼저 만든 행에 matched로 더해짐)
+     */
+    public void add(LocalDate salesDate, Long itemId, OrderStatus status, long revenue, long quantity) {
+        Object[] args = {salesDate, itemId, status.name(), revenue, quantity, revenue, quantity};
+        jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            if (con.getAutoCommit()) {
+                return merge(con, args);
+            }
+            Savepoint savepoint = con.setSavepoint();
+            try {
+                int updated = merge(con, args);
+                con.releaseSavepoint(savepoint);
+                return updated;
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw e;
+                }
+                con.rollback(savepoint);  // 다른 트랜잭션이 먼저 만들고 커밋함
+                return merge(con, args);
+            }
+        });
+    }
+
+    private int merge(Connection con, Object[] args) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(UPSERT)) {
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * 집계 테이블이 비어 있을 때만 기존 주문으로 집계 행을 만든다. (1회성 백필)
+     * - OrderService를 거치지 않고 들어간 주문(샘플 데이터 등)이 집계에 없으면 취소 시 ORDER 행이 음수가 된다.
+     * - 주문 상태별로 적재하므로 이미 취소된 주문은 CANCEL 행으로 들어간다.
+     * - 운영 DB는 V5 마이그레이션에서 같은 insert-select로 채운다.
+     */
+    public int backfillIfEmpty() {
+        return jdbcTemplate.update(
+                "insert into daily_item_sales (sales_date, item_id, status, revenue, quantity) " +
+                        "select cast(o.order_date as date), oi.item_id, o.status, sum(cast(oi.order_price as bigint) * oi.count), sum(oi.count) " +
+                        "from orders o join order_item oi on oi.order_id = o.order_id " +
+                        "where not exists (select 1 from daily_item_sales) " +
+                        "group by cast(o.order_date as date), oi.item_id, o.status");
+    }
+
+    /**
+     * 기간 내 상품별 매출 (매출 높은 순)
+     */
+    public List<ItemSalesDto> findItemSales(LocalDate from, LocalDate to, OrderStatus status) {
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.sales.ItemSalesDto(r.id.itemId, i.name, sum(r.revenue), sum(r.quantity)) " +
+                                "from DailySalesRollup r " +
+                                "join Item i on i.id = r.id.itemId " +
+                                "where r.id.salesDate between :from and :to " +
+                                "and r.id.status = :status " +
+                                "group by r.id.itemId, i.name " +
+                                "order by sum(r.revenue) desc", ItemSalesDto.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("status", status)
+                .getResultList();
+    }
+
+    /**
+     * 기간 내 일별 매출
+     */
+    public List<DailySalesDto> findDailySales(LocalDate from, LocalDate to, OrderStatus status) {
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.sales.DailySalesDto(r.id.salesDate, sum(r.revenue), sum(r.quantity)) " +
+                                "from DailySalesRollup r " +
+                                "where r.id.salesDate between :from and :to " +
+                                "and r.id.status = :status " +
+                                "group by r.id.salesDate " +
+                                "order by r.id.salesDate", DailySalesDto.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("status", status)
+                .getResultList();
+    }
+}
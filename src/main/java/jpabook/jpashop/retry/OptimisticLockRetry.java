@@ -0,0 +1,63 @@
+package jpabook.jpashop.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락 충돌 시 작업 전체를 다시 실행한다. (@RetryOnOptimisticLock, TransactionTemplate 바깥에서 직접 사용)
+ * - 작업은 트랜잭션 하나를 통째로 실행해야 한다. (재시도마다 새 영속성 컨텍스트에서 다시 조회)
+ * - 지표 : optimistic.lock.conflicts(충돌 수), optimistic.lock.exhausted(재시도 소진 수), method 태그
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OptimisticLockRetry {
+
+    static final int DEFAULT_MAX_ATTEMPTS = 5;
+    static final long DEFAULT_BACKOFF_MILLIS = 10;
+    static final long DEFAULT_MAX_BACKOFF_MILLIS = 200;
+
+    private final MeterRegistry meterRegistry;
+
+    public interface Attempt<T> {
+        T run() throws Throwable;
+    }
+
+    public <T> T execute(String method, Supplier<T> attempt) {
+        try {
+            return execute(method, DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS, attempt::get);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);  // Supplier는 검사 예외를 던지지 않음
+        }
+    }
+
+    public <T> T execute(String method, int maxAttempts, long backoffMillis, long maxBackoffMillis,
+                         Attempt<T> attempt) throws Throwable {
+        for (int count = 1; ; count++) {
+            try {
+                return attempt.run();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("optimistic.lock.conflicts", "method", method).increment();
+                if (count >= maxAttempts) {
+                    meterRegistry.counter("optimistic.lock.exhausted", "method", method).increment();
+                    throw e;
+                }
+                log.debug("optimistic lock conflict on {} (attempt {})", method, count);
+                Thread.sleep(backoff(backoffMillis, maxBackoffMillis, count));
+            }
+        }
+    }
+
+    private static long backoff(long backoffMillis, long maxBackoffMillis, int attempt) {
+        long cap = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);  // full jitter
+    }
+}
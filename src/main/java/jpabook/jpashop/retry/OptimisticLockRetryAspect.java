@@ -0,0 +1,32 @@
+package jpabook.jpashop.retry;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @RetryOnOptimisticLock 처리 (재시도 자체는 OptimisticLockRetry)
+ * - 트랜잭션 AOP(LOWEST_PRECEDENCE)보다 먼저 실행되어야 커밋 시점의 충돌까지 잡을 수 있다.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class OptimisticLockRetryAspect {
+
+    private final OptimisticLockRetry optimisticLockRetry;
+
+    @Around("@annotation(retry)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnOptimisticLock retry) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        return optimisticLockRetry.execute(joinPoint.getSignature().toShortString(),
+                retry.maxAttempts(), retry.backoffMillis(), retry.maxBackoffMillis(), joinPoint::proceed);
+    }
+}
@@ -0,0 +1,29 @@
+package jpabook.jpashop.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 락 충돌(@Version) 시 트랜잭션 전체를 다시 실행한다.
+ * - @Transactional 메서드에 붙인다. 재시도는 트랜잭션 바깥에서 일어나므로 매번 새 영속성 컨텍스트에서 다시 조회한다.
+ * - 이미 트랜잭션 안에서 호출되면 재시도하지 않는다. (바깥 트랜잭션이 롤백 대상이 되므로 바깥에서 처리해야 함)
+ *   TransactionTemplate으로 감싸서 호출하는 쪽은 OptimisticLockRetry로 템플릿 전체를 재시도한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLock {
+
+    /**
+     * 최초 실행을 포함한 최대 시도 횟수
+     */
+    int maxAttempts() default OptimisticLockRetry.DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * 첫 재시도 대기 시간 상한(ms). 시도마다 2배씩 늘리고, 실제 대기는 0 ~ 상한 사이에서 랜덤(jitter)
+     */
+    long backoffMillis() default OptimisticLockRetry.DEFAULT_BACKOFF_MILLIS;
+
+    long maxBackoffMillis() default OptimisticLockRetry.DEFAULT_MAX_BACKOFF_MILLIS;
+}
@@ -0,0 +1,121 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.BulkCancelJob;
+import jpabook.jpashop.domain.BulkJobStatus;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
+import jpabook.jpashop.repository.BulkCancelRepository;
+import jpabook.jpashop.repository.sales.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 조건별 대량 주문 취소
+ * - OrderService.cancelOrder()를 건마다 호출하지 않고, 주문 id keyset으로 CHUNK_SIZE 개씩 잘라서 청크마다 한 트랜잭션으로 처리한다.
+ * - 재고 복구는 청크 안에서 상품별로 합산해서 상품당 update 1번, 주문 상태 변경도 벌크 update 1번으로 반영한다.
+ * - 배송 완료(COMP) 주문은 Order.cancel()과 같은 규칙으로 건너뛰고 skippedCount에 기록한다.
+ * - 진행 위치(lastOrderId)는 청크와 같은 트랜잭션에 저장하므로, 중단되면 resume()으로 이어서 처리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkCancelService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final BulkCancelRepository bulkCancelRepository;
+    private final SalesRollupRepository salesRollupRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 작업을 등록하고 끝까지 실행
+     */
+    public BulkCancelJob start(LocalDateTime orderDateFrom, LocalDateTime orderDateTo, Long itemId) {
+        if (orderDateFrom == null || orderDateTo == null || orderDateFrom.isAfter(orderDateTo)) {
+            throw new IllegalArgumentException("주문일 범위가 올바르지 않습니다.");
+        }
+        Long jobId = new TransactionTemplate(transactionManager).execute(status -> {
+            BulkCancelJob job = BulkCancelJob.create(orderDateFrom, orderDateTo, itemId);
+            bulkCancelRepository.save(job);
+            return job.getId();
+        });
+        return resume(jobId);
+    }
+
+    /**
+     * 마지막으로 커밋된 청크 다음부터 이어서 실행 (완료된 작업은 그대로 반환)
+     */
+    public BulkCancelJob resume(Long jobId) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        while (Boolean.TRUE.equals(tx.execute(status -> processChunk(jobId)))) {
+            // 청크 단위로 커밋하며 반복
+        }
+        BulkCancelJob job = findJob(jobId);
+        log.info("bulk cancel finished: job={}, canceled={}, skipped={}",
+                job.getId(), job.getCanceledCount(), job.getSkippedCount());
+        return job;
+    }
+
+    public BulkCancelJob findJob(Long jobId) {
+        BulkCancelJob job = new TransactionTemplate(transactionManager)
+                .execute(status -> bulkCancelRepository.findOne(jobId));
+        if (job == null) {
+            throw new IllegalArgumentException("작업이 없습니다. id=" + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * 청크 1개 처리. 더 처리할 주문이 있으면 true
+     */
+    private boolean processChunk(Long jobId) {
+        BulkCancelJob job = bulkCancelRepository.findOneForUpdate(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("작업이 없습니다. id=" + jobId);
+        }
+        if (job.getStatus() == BulkJobStatus.COMPLETED) {
+            return false;
+        }
+
+        List<Long> candidateIds = bulkCancelRepository.findCandidateOrderIds(job, CHUNK_SIZE);
+        if (candidateIds.isEmpty()) {
+            job.complete();
+            return false;
+        }
+
+        List<Long> cancellableIds = bulkCancelRepository.lockCancellableOrderIds(candidateIds);
+        if (!cancellableIds.isEmpty()) {
+            // 재고 복구 : 상품별 합산
+            for (Object[] row : bulkCancelRepository.sumCountByItem(cancellableIds)) {
+                bulkCancelRepository.addStock((Long) row[0], ((Number) row[1]).longValue());
+            }
+            // 매출 집계 : 주문일의 ORDER 집계에서 빼고 CANCEL 집계로 옮긴다.
+            for (Object[] row : bulkCancelRepository.sumSalesByDateAndItem(cancellableIds)) {
+                LocalDate salesDate = (LocalDate) row[0];
+                Long itemId = (Long) row[1];
+                long revenue = ((Number) row[2]).longValue();
+                long quantity = ((Number) row[3]).longValue();
+                salesRollupRepository.add(salesDate, itemId, OrderStatus.ORDER, -revenue, -quantity);
+                salesRollupRepository.add(salesDate, itemId, OrderStatus.CANCEL, revenue, quantity);
+            }
+            bulkCancelRepository.cancelOrders(cancellableIds);
+            eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.ORDER, Aggregate.ITEM));  // 커밋 후 반영
+        }
+
+        job.advance(candidateIds.get(candidateIds.size() - 1), cancellableIds.size(),
+                candidateIds.size() - cancellableIds.size());
+        log.info("bulk cancel progress: job={}, lastOrderId={}, canceled={}, skipped={}",
+                job.getId(), job.getLastOrderId(), job.getCanceledCount(), job.getSkippedCount());
+        return true;
+    }
+}
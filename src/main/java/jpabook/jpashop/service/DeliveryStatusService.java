@@ -0,0 +1,149 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 배송 상태 일괄 반영 (창고 파일 피드)
+ * - CHUNK_SIZE 단위로 delivery_id 기준 JDBC 배치 update를 실행하고 청크마다 커밋한다.
+ * - 상태는 앞으로만 바뀐다. (READY -> COMP, 완료된 배송은 되돌리지 않음)
+ * - 취소된 주문의 배송은 완료 처리하지 않는다. 배송을 COMP로 바꾸기 전에 취소되지 않은 주문의 version을 먼저 올린다.
+ *   이 update가 주문 행을 잠그므로 동시에 커밋되는 cancelOrder()는 둘 중 하나가 된다.
+ *   - 먼저 커밋됨 : 주문이 CANCEL 이므로 version update 대상에서 빠지고 배송도 완료 처리하지 않는다.
+ *   - 나중에 커밋됨 : version이 바뀌어 낙관적 락 충돌 후 재시도하면서 COMP를 보고 취소를 거절한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeliveryStatusService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * CSV : deliveryId,status (첫 줄이 헤더면 건너뜀)
+     */
+    public DeliveryStatusUpdateResult updateFromCsv(Reader reader) throws IOException {
+        DeliveryStatusUpdateResult result = new DeliveryStatusUpdateResult();
+        long startedAt = System.currentTimeMillis();
+        List<DeliveryStatusUpdate> buffer = new ArrayList<>(CHUNK_SIZE);
+
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        boolean first = true;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank() || (first && !Character.isDigit(line.trim().charAt(0)))) {
+                first = false;
+                continue;
+            }
+            first = false;
+            String[] columns = line.split(",");
+            try {
+                buffer.add(new DeliveryStatusUpdate(Long.parseLong(columns[0].trim()),
+                        DeliveryStatus.valueOf(columns[1].trim().toUpperCase())));
+                result.addProcessed();
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                result.addRejected();  // NumberFormatException 포함
+                continue;
+            }
+            if (buffer.size() == CHUNK_SIZE) {
+                flush(buffer, result);
+            }
+        }
+        flush(buffer, result);
+
+        result.finish(System.currentTimeMillis() - startedAt);
+        log.info("delivery status update finished: processed={}, updated={}, skipped={}, rejected={}, {}ms ({} rows/s)",
+                result.getProcessed(), result.getUpdated(), result.getSkipped(), result.getRejected(),
+                result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private void flush(List<DeliveryStatusUpdate> buffer, DeliveryStatusUpdateResult result) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        long updated = new TransactionTemplate(transactionManager).execute(status -> updateChunk(buffer));
+        result.addChunk(updated, buffer.size() - updated);
+        buffer.clear();
+        log.info("delivery status update progress: chunk={}, processed={}, updated={}",
+                result.getChunks(), result.getProcessed(), result.getUpdated());
+    }
+
+    /**
+     * @return 상태가 실제로 바뀐 배송 수 (같은 청크에 여러 번 나온 배송은 한 번만, 이미 그 상태인 배송은 제외)
+     */
+    private long updateChunk(List<DeliveryStatusUpdate> chunk) {
+        Set<Long> ready = new LinkedHashSet<>();
+        Set<Long> complete = new LinkedHashSet<>();
+        for (DeliveryStatusUpdate row : chunk) {
+            (row.getStatus() == DeliveryStatus.COMP ? complete : ready).add(row.getDeliveryId());
+        }
+        ready.removeAll(complete);  // 상태는 앞으로만 바뀌므로 COMP가 있으면 READY 줄은 의미 없음
+
+        long updated = countUpdated(batchUpdate(
+                "update delivery set status = 'READY' where delivery_id = ? and status is null", List.copyOf(ready)));
+
+        // 주문 행을 먼저 잠근다. (취소된 주문, 이미 완료된 배송은 제외)
+        List<Long> completeIds = List.copyOf(complete);
+        List<Long> completedIds = updatedIds(completeIds, batchUpdate(
+                "update orders o set version = coalesce(o.version, 0) + 1 where o.delivery_id = ? and o.status <> 'CANCEL' " +
+                        "and exists (select 1 from delivery d where d.delivery_id = o.delivery_id and (d.status is null or d.status = 'READY'))",
+                completeIds));
+        batchUpdate("update delivery set status = 'COMP' where delivery_id = ? and (status is null or status = 'READY')", completedIds);
+        updated += completedIds.size();
+
+        if (!completedIds.isEmpty()) {
+            eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.ORDER));  // 커밋 후 반영
+        }
+        return updated;
+    }
+
+    private int[] batchUpdate(String sql, List<Long> deliveryIds) {
+        if (deliveryIds.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(sql, deliveryIds, deliveryIds.size(),
+                (ps, deliveryId) -> ps.setLong(1, deliveryId))[0];
+    }
+
+    private static List<Long> updatedIds(List<Long> deliveryIds, int[] counts) {
+        List<Long> updatedIds = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                updatedIds.add(deliveryIds.get(i));
+            }
+        }
+        return updatedIds;
+    }
+
+    private static long countUpdated(int[] counts) {
+        long updated = 0;
+        for (int count : counts) {
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+}
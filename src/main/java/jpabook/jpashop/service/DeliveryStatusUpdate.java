@@ -0,0 +1,18 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.DeliveryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 배송 상태 피드 한 줄 (deliveryId, status)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryStatusUpdate {
+
+    private Long deliveryId;
+    private DeliveryStatus status;
+}
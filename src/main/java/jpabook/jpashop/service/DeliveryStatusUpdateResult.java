@@ -0,0 +1,43 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+
+/**
+ * 배송 상태 일괄 반영 결과
+ */
+@Getter
+public class DeliveryStatusUpdateResult {
+
+    private long processed;  // 읽은 줄 수
+    private long updated;  // 상태가 실제로 바뀐 배송 수
+    private long skipped;  // 없는 배송, 취소된 주문, 이미 그 상태인 배송, 같은 청크에서 반복된 줄
+    private long rejected;  // 형식 오류, 알 수 없는 상태
+    private int chunks;
+    private long elapsedMillis;
+
+    void addProcessed() {
+        processed++;
+    }
+
+    void addRejected() {
+        processed++;
+        rejected++;
+    }
+
+    void addChunk(long updated, long skipped) {
+        this.updated += updated;
+        this.skipped += skipped;
+        this.chunks++;
+    }
+
+    void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * 초당 처리 줄 수
+     */
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? processed : processed * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,175 @@
+package jpabook.jpashop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jpabook.jpashop.domain.IdempotencyKey;
+import jpabook.jpashop.exception.IdempotencyConflictException;
+import jpabook.jpashop.repository.IdempotencyKeyRepository;
+import jpabook.jpashop.retry.OptimisticLockRetry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key 주문
+ * - 같은 키로 다시 요청하면 OrderService.order()를 실행하지 않고 처음 만든 주문 id를 반환한다.
+ * - 메모리(Caffeine) : 이 서버에서 처리 중이거나 처리한 키. 같은 키의 동시 요청은 첫 요청의 결과를 기다린다. (single-flight)
+ * - DB(idempotency_key) : 재시작 후나 다른 서버로 들어온 재시도용. 키 insert와 주문 생성이 같은 트랜잭션이므로
+ *   주문이 롤백되면 키도 남지 않아서 그대로 다시 시도할 수 있다.
+ * - 두 저장소 모두 ttl이 지나면 정리한다.
+ * - 주문이 이 트랜잭션 안에서 실행되므로 OrderService.order()의 @RetryOnOptimisticLock은 동작하지 않는다.
+ *   대신 트랜잭션 전체(키 insert + 주문)를 OptimisticLockRetry로 재시도한다.
+ */
+@Slf4j
+@Service
+@Lazy(false)  // 지연 초기화(prod)에서도 스케줄 등록
+public class IdempotentOrderService {
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Cache<String, InFlight> keys;
+
+    public IdempotentOrderService(OrderService orderService,
+                                  IdempotencyKeyRepository idempotencyKeyRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  OptimisticLockRetry optimisticLockRetry,
+                                  @Value("${jpashop.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${jpashop.idempotency.wait-timeout:10s}") Duration waitTimeout,  // 같은 키를 처리 중인 요청을 기다리는 최대 시간
+                                  @Value("${jpashop.idempotency.max-keys:100000}") long maxKeys) {
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.keys = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /**
+     * @param key 없으면 그냥 주문한다.
+     * @return 주문 id (재요청이면 처음 만든 주문 id)
+     */
+    public Long order(String key, Long memberId, Long itemId, int count) {
+        if (!StringUtils.hasText(key)) {
+            return orderService.order(memberId, itemId, count);
+        }
+        if (key.length() > 100) {
+            throw new IllegalArgumentException("Idempotency-Key는 100자 이하여야 합니다.");
+        }
+
+        String requestHash = memberId + "/" + itemId + "/" + count;
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight existing = keys.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            // 이 서버에서 같은 키를 처리 중이거나 처리했음
+            if (!existing.requestHash().equals(requestHash)) {
+                throw new IdempotencyConflictException("같은 Idempotency-Key로 다른 주문을 요청했습니다.");
+            }
+            return await(existing.orderId());
+        }
+
+        try {
+            Long orderId = orderOnce(key, requestHash, memberId, itemId, count);
+            mine.orderId().complete(orderId);
+            return orderId;
+        } catch (Throwable e) {
+            keys.asMap().remove(key, mine);  // 실패한 키는 다시 시도할 수 있어야 한다. (Error 포함)
+            mine.orderId().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Long orderOnce(String key, String requestHash, Long memberId, Long itemId, int count) {
+        IdempotencyKey saved = transactionTemplate.execute(status -> idempotencyKeyRepository.findOne(key));
+        if (saved != null) {
+            return checkSaved(saved, requestHash);
+        }
+
+        try {
+            return optimisticLockRetry.execute("IdempotentOrderService.order", () -> transactionTemplate.execute(status -> {
+                IdempotencyKey idempotencyKey = IdempotencyKey.create(key, requestHash);
+                try {
+                    idempotencyKeyRepository.insert(idempotencyKey);  // 다른 서버가 같은 키를 먼저 넣었으면 여기서 실패
+                } catch (DataIntegrityViolationException e) {
+                    throw new DuplicateKeyInsert(e);  // 키 PK 중복만 구분 (주문 중의 제약 위반은 그대로 전파)
+                }
+                Long orderId = orderService.order(memberId, itemId, count);
+                idempotencyKey.complete(orderId);
+                return orderId;
+            }));
+        } catch (DuplicateKeyInsert e) {
+            saved = transactionTemplate.execute(status -> idempotencyKeyRepository.findOne(key));
+            if (saved == null) {
+                throw new IdempotencyConflictException("같은 Idempotency-Key의 요청을 처리 중입니다.");
+            }
+            return checkSaved(saved, requestHash);
+        }
+    }
+
+    private static Long checkSaved(IdempotencyKey saved, String requestHash) {
+        if (!saved.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException("같은 Idempotency-Key로 다른 주문을 요청했습니다.");
+        }
+        return saved.getOrderId();
+    }
+
+    private Long await(CompletableFuture<Long> future) {
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("같은 Idempotency-Key의 요청을 처리 중입니다.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("같은 Idempotency-Key의 요청을 처리 중입니다.");
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<Long> orderId) {
+    }
+
+    /**
+     * idempotency_key insert의 PK 중복 (트랜잭션은 롤백되고 바깥에서 저장된 키를 다시 읽는다)
+     */
+    private static class DuplicateKeyInsert extends RuntimeException {
+        DuplicateKeyInsert(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * ttl이 지난 키 정리 (메모리는 Caffeine이 만료 처리)
+     */
+    @Scheduled(fixedDelayString = "${jpashop.idempotency.cleanup-interval:3600000}")
+    public void deleteExpired() {
+        int deleted = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+        if (deleted > 0) {
+            log.info("expired idempotency keys deleted: {}", deleted);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+
+/**
+ * 대량 수정 진행 결과
+ */
+@Getter
+public class ItemBulkUpdateResult {
+
+    private long processed;  // 읽은 줄 수
+    private long updated;  // 수정된 상품 수
+    private long missing;  // 존재하지 않는 상품 id
+    private long rejected;  // 형식 오류, 음수 가격/재고
+    private int chunks;
+    private long elapsedMillis;
+
+    void addProcessed() {
+        processed++;
+    }
+
+    void addRejected() {
+        processed++;
+        rejected++;
+    }
+
+    void addChunk(long updated, long missing) {
+        this.updated += updated;
+        this.missing += missing;
+        this.chunks++;
+    }
+
+    void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,176 @@
+package jpabook.jpashop.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 상품 가격/재고 대량 수정
+ * - ItemService.updateItem(엔티티 조회 + 변경 감지)을 건마다 호출하지 않고, CHUNK_SIZE 단위 JDBC 배치 update로 반영한다.
+ * - 입력은 스트림으로 읽고 청크만 메모리에 두므로 행 수와 상관없이 메모리 사용량이 일정하다.
+ * - 청크마다 별도 트랜잭션으로 커밋하고 ITEM 변경 이벤트를 발행한다. (ETag, 응답 캐시 무효화)
+ * - 엔티티를 로딩하지 않으므로 영속성 컨텍스트에 스냅샷이 쌓이지 않는다. 낙관적 락을 위해 version은 직접 올린다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBulkUpdateService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final String CSV_HEADER = "itemId,price,stockQuantity";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * CSV : itemId,price,stockQuantity (첫 줄이 헤더면 건너뜀)
+     * - 빈 줄이 아닌 첫 줄은 숫자로 시작하는 데이터이거나 헤더와 정확히 같아야 한다. (열 이름 대소문자, 공백은 무시)
+     *   다른 글자로 시작하면 열 순서가 다른 파일일 수 있으므로 아무것도 반영하지 않고 줄 번호와 함께 거부한다.
+     */
+    public ItemBulkUpdateResult updateFromCsv(Reader reader) throws IOException {
+        Chunker chunker = new Chunker();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        boolean first = true;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (first) {
+                first = false;
+                if (line.charAt(0) == '\uFEFF') {
+                    line = line.substring(1);  // 엑셀 등에서 저장한 UTF-8 BOM
+                }
+                if (isCsvHeader(line)) {
+                    continue;
+                }
+                if (!Character.isDigit(line.trim().charAt(0))) {
+                    throw new IllegalArgumentException(lineNumber + "번째 줄: 헤더는 " + CSV_HEADER + " 이어야 합니다. (" + line.trim() + ")");
+                }
+            }
+            String[] columns = line.split(",");
+            try {
+                chunker.add(new ItemPriceStockUpdate(Long.parseLong(columns[0].trim()),
+                        Integer.parseInt(columns[1].trim()), Integer.parseInt(columns[2].trim())));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                chunker.reject();
+            }
+        }
+        return chunker.finish();
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.replaceAll("\\s", "").equalsIgnoreCase(CSV_HEADER);
+    }
+
+    /**
+     * JSON : [{"itemId": 1, "price": 10000, "stockQuantity": 100}, ...]
+     * - 행(객체) 단위로 읽은 뒤 변환하므로, 타입이 맞지 않는 행은 그 행만 거부하고 다음 행으로 넘어간다.
+     */
+    public ItemBulkUpdateResult updateFromJson(InputStream in) throws IOException {
+        Chunker chunker = new Chunker();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON 배열 형식이어야 합니다.");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode row = parser.readValueAsTree();  // 객체 끝까지 읽음
+                try {
+                    chunker.add(objectMapper.treeToValue(row, ItemPriceStockUpdate.class));
+                } catch (JsonProcessingException e) {
+                    chunker.reject();  // 예 : "price": "abc"
+                }
+            }
+        }
+        return chunker.finish();
+    }
+
+    private int[] updateChunk(List<ItemPriceStockUpdate> chunk) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            int[] counts = jdbcTemplate.batchUpdate(
+                    "update item set price = ?, stock_quantity = ?, version = coalesce(version, 0) + 1 where item_id = ?",
+                    chunk, chunk.size(), (ps, row) -> {
+                        ps.setInt(1, row.getPrice());
+                        ps.setInt(2, row.getStockQuantity());
+                        ps.setLong(3, row.getItemId());
+                    })[0];
+            eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.ITEM));  // 커밋 후 반영
+            return counts;
+        });
+    }
+
+    /**
+     * 입력을 청크로 모아서 반영하고 진행 상황을 기록한다.
+     */
+    private class Chunker {
+
+        private final List<ItemPriceStockUpdate> buffer = new ArrayList<>(CHUNK_SIZE);
+        private final ItemBulkUpdateResult result = new ItemBulkUpdateResult();
+        private final long startedAt = System.currentTimeMillis();
+
+        void add(ItemPriceStockUpdate row) {
+            if (row.getItemId() == null || row.getPrice() == null || row.getStockQuantity() == null
+                    || row.getPrice() < 0 || row.getStockQuantity() < 0) {
+                reject();
+                return;
+            }
+            result.addProcessed();
+            buffer.add(row);
+            if (buffer.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject() {
+            result.addRejected();
+        }
+
+        ItemBulkUpdateResult finish() {
+            flush();
+            result.finish(System.currentTimeMillis() - startedAt);
+            log.info("item bulk update finished: processed={}, updated={}, missing={}, rejected={}, {}ms",
+                    result.getProcessed(), result.getUpdated(), result.getMissing(), result.getRejected(), result.getElapsedMillis());
+            return result;
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            int[] counts = updateChunk(buffer);
+            long updated = 0;
+            for (int count : counts) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated++;
+                }
+            }
+            result.addChunk(updated, counts.length - updated);
+            buffer.clear();
+            log.info("item bulk update progress: chunk={}, processed={}, updated={}",
+                    result.getChunks(), result.getProcessed(), result.getUpdated());
+        }
+    }
+}
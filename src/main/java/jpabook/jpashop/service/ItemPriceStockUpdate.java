@@ -0,0 +1,19 @@
+package jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 대량 수정 입력 한 줄 (itemId, price, stockQuantity)
+ * - 값이 빠진 행이 0으로 반영되지 않도록 래퍼 타입을 사용한다. (null이면 거부)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPriceStockUpdate {
+
+    private Long itemId;
+    private Integer price;
+    private Integer stockQuantity;
+}
@@ -3,12 +3,17 @@ package jpabook.jpashop.service;
 import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.item.Book;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
 import jpabook.jpashop.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @Transactional(readOnly = true)
@@ -17,23 +22,31 @@ public class ItemService {
 
     private final ItemRepository itemRepository;
     private final EntityManager em;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional  // 저장이므로 추가해야됨
     public void save(Item item) {
         itemRepository.save(item);
+        eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.ITEM));
     }
 
     /**
      * 변경 감지 기능 사용 - merge()를 사용하는 것보다 훨씬 안전하므로 실무에서는 변경 감지를 사용할 것
+     * 관리자가 화면에서 본 버전(version)과 다르면 충돌로 처리한다. 절대값으로 덮어쓰는 수정이므로 재시도하지 않는다.
+     * (재시도하면 그 사이의 주문 재고 차감을 지워버림)
      * @param itemId
-     * @param param
+     * @param version 수정 화면을 열 때의 버전
      */
     @Transactional
-    public void updateItem(Long itemId, String name, int price, int stockQuantity) {
+    public void updateItem(Long itemId, Long version, String name, int price, int stockQuantity) {
         Item findItem = itemRepository.findOne(itemId);
+        if (!Objects.equals(findItem.getVersion(), version)) {
+            throw new ObjectOptimisticLockingFailureException(Item.class, itemId);
+        }
         findItem.setName(name);
         findItem.setPrice(price);
         findItem.setStockQuantity(stockQuantity);
+        eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.ITEM));
         //itemRepository.save(findItem);  // 을 할 필요가 없음 -> 이게 없어도 @Transactional에 의해 자동으로 데이터가 수정됨
     }
 
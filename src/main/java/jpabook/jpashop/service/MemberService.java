@@ -1,8 +1,11 @@
 package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
 import jpabook.jpashop.repository.MemberRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +17,7 @@ import java.util.List;
 public class MemberService {
 
     private final MemberRepository memberRepository;  // final을 붙여줘야 함
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 회원 가입
@@ -24,6 +28,7 @@ public class MemberService {
     public Long join(Member member) {
         validateDuplicateMember(member);  // 중복 회원 검증
         memberRepository.save(member);
+        eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.MEMBER));
         return member.getId();
     }
 
@@ -49,5 +54,6 @@ public class MemberService {
     public void update(Long id, String name) {
         Member member = memberRepository.findOne(id);  // member는 영속 상태
         member.setName(name);
+        eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.MEMBER));
     }
 }
@@ -0,0 +1,30 @@
+package jpabook.jpashop.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * --jpashop.archive.enabled=true 로 실행했을 때만 주기적으로 오래된 주문을 보관한다.
+ */
+@Component
+@Lazy(false)  // 지연 초기화(prod)에서도 스케줄 등록
+@ConditionalOnProperty(name = "jpashop.archive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class OrderArchiveScheduler {
+
+    private final OrderArchiveService orderArchiveService;
+
+    @Value("${jpashop.archive.retention-days:365}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${jpashop.archive.cron:0 0 4 * * *}")
+    public void archive() {
+        orderArchiveService.archiveOlderThan(LocalDateTime.now().minusDays(retentionDays));
+    }
+}
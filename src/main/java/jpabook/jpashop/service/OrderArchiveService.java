@@ -0,0 +1,85 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 오래된 주문 보관
+ * - cutoff 이전에 주문했고 처리가 끝난(취소 또는 배송 완료) 주문을 orders_archive, order_item_archive, delivery_archive로 옮긴다.
+ * - CHUNK_SIZE 개씩 insert-select 후 delete 하고 청크마다 커밋한다. 옮긴 행은 운영 테이블에서 사라지므로 다음 청크는 처음부터 다시 조회하면 된다.
+ * - 보관된 주문은 OrderRepository.findOne()으로 계속 조회할 수 있다.
+ * - 매출 집계(daily_item_sales)는 그대로 두므로 기간 매출에는 보관된 주문도 포함된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @return 보관한 주문 수
+     */
+    public long archiveOlderThan(LocalDateTime cutoff) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long archived = 0;
+        int moved;
+        do {
+            moved = tx.execute(status -> archiveChunk(cutoff));
+            archived += moved;
+        } while (moved == CHUNK_SIZE);
+        log.info("order archive finished: cutoff={}, archived={}", cutoff, archived);
+        return archived;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> orderIds = jdbcTemplate.queryForList(
+                "select o.order_id from orders o join delivery d on d.delivery_id = o.delivery_id " +
+                        "where o.order_date < :cutoff and (o.status = 'CANCEL' or d.status = 'COMP') " +
+                        "order by o.order_id limit :limit for update",
+                new MapSqlParameterSource("cutoff", cutoff).addValue("limit", CHUNK_SIZE), Long.class);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource("orderIds", orderIds)
+                .addValue("archivedAt", LocalDateTime.now());
+        List<Long> deliveryIds = jdbcTemplate.queryForList(
+                "select delivery_id from orders where order_id in (:orderIds)", params, Long.class);
+        params.addValue("deliveryIds", deliveryIds);
+
+        jdbcTemplate.update("insert into orders_archive (order_id, member_id, delivery_id, order_date, status, version, total_amount, canceled_at, archived_at) " +
+                "select order_id, member_id, delivery_id, order_date, status, version, total_amount, canceled_at, :archivedAt " +
+                "from orders where order_id in (:orderIds)", params);
+        jdbcTemplate.update("insert into order_item_archive (order_item_id, order_id, item_id, order_price, count) " +
+                "select order_item_id, order_id, item_id, order_price, count " +
+                "from order_item where order_id in (:orderIds)", params);
+        jdbcTemplate.update("insert into delivery_archive (delivery_id, city, street, zipcode, status) " +
+                "select delivery_id, city, street, zipcode, status " +
+                "from delivery where delivery_id in (:deliveryIds)", params);
+
+        // 외래 키 순서대로 삭제
+        jdbcTemplate.update("delete from order_item where order_id in (:orderIds)", params);
+        jdbcTemplate.update("delete from orders where order_id in (:orderIds)", params);
+        jdbcTemplate.update("delete from delivery where delivery_id in (:deliveryIds)", params);
+
+        eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.ORDER));  // 커밋 후 반영
+        log.info("order archive progress: orders={}, lastOrderId={}", orderIds.size(), orderIds.get(orderIds.size() - 1));
+        return orderIds.size();
+    }
+}
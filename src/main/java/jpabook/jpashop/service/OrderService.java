@@ -2,10 +2,17 @@ package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
+import jpabook.jpashop.exception.NotEnoughStockException;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.repository.OrderPlacementDto;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.sales.SalesRollupRepository;
+import jpabook.jpashop.retry.RetryOnOptimisticLock;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,23 +26,40 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final SalesRollupRepository salesRollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 주문
      */
     @Transactional
+    @RetryOnOptimisticLock
     public Long order(Long memberId, Long itemId, int count) {
 
-        // 엔티티 조회
-        Member member = memberRepository.findOne(memberId);
-        Item item = itemRepository.findOne(itemId);
+        // 필요한 값만 조회 (회원 주소, 상품 가격/재고를 쿼리 1번으로)
+        OrderPlacementDto placement = orderRepository.findPlacement(memberId, itemId);
+        if (placement == null) {
+            throw new IllegalArgumentException("회원 또는 상품이 없습니다.");
+        }
+        if (placement.getStockQuantity() < count) {
+            throw new NotEnoughStockException("need more stock");
+        }
+
+        // 재고 차감 (update 1번, 그 사이 재고가 줄었으면 0건)
+        if (itemRepository.removeStock(itemId, count) == 0) {
+            throw new NotEnoughStockException("need more stock");
+        }
+
+        // 엔티티는 조회하지 않고 프록시로 연관관계만 설정
+        Member member = memberRepository.getReference(memberId);
+        Item item = itemRepository.getReference(itemId);
 
         // 배송 정보 생성
         Delivery delivery = new Delivery();
-        delivery.setAddress(member.getAddress());
+        delivery.setAddress(placement.getAddress());
 
         // 주문 상품 생성
-        OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), count);
+        OrderItem orderItem = OrderItem.createReservedOrderItem(item, placement.getPrice(), count);
 
         // 주문 생성
         Order order = Order.createOrder(member, delivery, orderItem);
@@ -43,6 +67,12 @@ public class OrderService {
         // 주문 저장
         orderRepository.save(order);  // cascadeType.ALL 옵션으로 인해 order만 save하면 모두 자동으로 persist 된다.
 
+        // 매출 집계 반영 (같은 트랜잭션)
+        salesRollupRepository.add(order.getOrderDate().toLocalDate(), itemId, OrderStatus.ORDER,
+                orderItem.getTotalPrice(), count);
+
+        eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.ORDER, Aggregate.ITEM));  // 재고도 변경됨
+
         return order.getId();
     }
 
@@ -50,11 +80,27 @@ public class OrderService {
      * 취소
      */
     @Transactional
+    @RetryOnOptimisticLock
     public void cancelOrder(Long orderId) {
         // 주문 엔티티 조회
         Order order = orderRepository.findOne(orderId);
         // 주문 취소
         order.cancel();
+
+        // 매출 집계 반영 : 주문일의 ORDER 집계에서 빼고 CANCEL 집계로 옮긴다.
+        for (OrderItem orderItem : order.getOrderItems()) {
+            moveSales(order, orderItem, OrderStatus.ORDER, OrderStatus.CANCEL);
+        }
+
+        eventPublisher.publishEvent(new AggregateChangedEvent(Aggregate.ORDER, Aggregate.ITEM));  // 재고도 복구됨
+    }
+
+    private void moveSales(Order order, OrderItem orderItem, OrderStatus from, OrderStatus to) {
+        Long itemId = orderItem.getItem().getId();
+        salesRollupRepository.add(order.getOrderDate().toLocalDate(), itemId, from,
+                -orderItem.getTotalPrice(), -orderItem.getCount());
+        salesRollupRepository.add(order.getOrderDate().toLocalDate(), itemId, to,
+                orderItem.getTotalPrice(), orderItem.getCount());
     }
 
     /** 검색 */
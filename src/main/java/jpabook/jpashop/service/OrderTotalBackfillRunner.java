@@ -0,0 +1,27 @@
+package jpabook.jpashop.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * --jpashop.backfill.order-total=true 로 실행했을 때만 기동 직후 백필을 수행한다.
+ */
+@Component
+@ConditionalOnProperty(name = "jpashop.backfill.order-total", havingValue = "true")
+@RequiredArgsConstructor
+public class OrderTotalBackfillRunner implements ApplicationRunner {
+
+    private final OrderTotalBackfillService orderTotalBackfillService;
+
+    @Value("${jpashop.backfill.parallelism:4}")
+    private int parallelism;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        orderTotalBackfillService.backfill(parallelism);
+    }
+}
@@ -0,0 +1,57 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 기존 주문의 totalAmount 백필 (1회성 작업)
+ * - totalAmount가 null인 주문의 id 범위를 CHUNK_SIZE 단위로 나누고, 청크마다 별도 트랜잭션으로 벌크 update 한다.
+ * - 청크끼리 id 범위가 겹치지 않으므로 병렬로 실행해도 서로 잠금을 기다리지 않는다.
+ * - 이미 채워진 주문은 건너뛰므로 중간에 실패해도 다시 실행하면 된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderTotalBackfillService {
+
+    private static final long CHUNK_SIZE = 10_000;
+
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public int backfill(int parallelism) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long[] range = tx.execute(status -> orderRepository.findIdRangeWithoutTotalAmount());
+        if (range == null) {
+            log.info("order totalAmount backfill: nothing to do");
+            return 0;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (long from = range[0]; from <= range[1]; from += CHUNK_SIZE) {
+                long fromId = from;
+                long toId = Math.min(from + CHUNK_SIZE - 1, range[1]);
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> tx.execute(status -> orderRepository.backfillTotalAmount(fromId, toId)), executor));
+            }
+
+            int updated = futures.stream().mapToInt(CompletableFuture::join).sum();
+            log.info("order totalAmount backfill: {} orders updated in {} chunks", updated, futures.size());
+            return updated;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
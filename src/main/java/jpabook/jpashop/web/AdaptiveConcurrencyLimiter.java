@@ -0,0 +1,80 @@
+package jpabook.jpashop.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 응답 시간에 따라 동시 처리 한도를 조절하는 limiter (AIMD)
+ * - 응답이 목표 시간 안에 끝나면 한도를 조금씩 늘리고(+1/limit), 넘기면 크게 줄인다(x backoffRatio).
+ * - 우선순위마다 한도의 일부만 쓸 수 있으므로 한도가 줄면 EXPENSIVE_READ가 가장 먼저 거절된다.
+ * - 상태는 Atomic 변수만 사용한다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;  // double 한도
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    /**
+     * 허용되면 inFlight를 늘리고 true. 허용된 요청은 반드시 release()를 호출해야 한다.
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (getLimit() * priority.getLimitShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latencyNanos 처리 시간
+     * @param dropped 에러/타임아웃 등 과부하로 볼 수 있는 실패
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        if (dropped || latencyNanos > targetLatencyNanos) {
+            limitBits.updateAndGet(bits -> Double.doubleToLongBits(
+                    Math.max(minLimit, Double.longBitsToDouble(bits) * backoffRatio)));
+        } else {
+            limitBits.updateAndGet(bits -> {
+                double limit = Double.longBitsToDouble(bits);
+                if (current < limit / 2) {
+                    return bits;  // 한도를 다 쓰지도 않는데 늘리지 않음
+                }
+                return Double.doubleToLongBits(Math.min(maxLimit, limit + 1 / limit));
+            });
+        }
+    }
+
+    /**
+     * 한도는 그대로 두고 자리만 반납한다. 처리 시간이 원래 긴 요청(대량 업로드, 스트리밍)의 응답 시간으로 한도를 줄이지 않는다.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
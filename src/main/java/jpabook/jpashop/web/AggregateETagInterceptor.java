@@ -0,0 +1,43 @@
+package jpabook.jpashop.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jpabook.jpashop.event.Aggregate;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 조회 요청의 If-None-Match를 애그리거트 버전으로 검사해서, 변경이 없으면 컨트롤러(DB 조회, 직렬화)를 실행하지 않고 304를 응답한다.
+ */
+public class AggregateETagInterceptor implements HandlerInterceptor {
+
+    private final AggregateVersions aggregateVersions;
+    private final Set<Aggregate> aggregates;
+    private final CacheControl cacheControl;
+
+    public AggregateETagInterceptor(AggregateVersions aggregateVersions, CacheControl cacheControl,
+                                    Aggregate first, Aggregate... rest) {
+        this.aggregateVersions = aggregateVersions;
+        this.cacheControl = cacheControl;
+        this.aggregates = EnumSet.of(first, rest);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        // ETag 헤더 설정 + If-None-Match 일치 시 304 상태 설정
+        String etag = aggregateVersions.etag(aggregates);
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
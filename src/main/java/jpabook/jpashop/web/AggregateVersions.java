@@ -0,0 +1,141 @@
+package jpabook.jpashop.web;
+
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 애그리거트별 변경 카운터 (aggregate_version 테이블 + 메모리 스냅샷)
+ * - ETag 계산은 메모리 스냅샷만 읽는다. (304 응답, 캐시 키 계산에 DB를 쓰지 않음)
+ * - 이 인스턴스의 변경은 커밋 후 바로 스냅샷에 반영되고(미반영 표시 포함), DB에는 sync 주기마다 모아서 한 번에 더한다.
+ *   주문마다 같은 행을 올리지 않으므로 주문 처리가 aggregate_version 행 잠금에 줄 서지 않는다.
+ * - 다른 인스턴스의 변경은 sync 주기마다 DB를 다시 읽어서 반영한다.
+ *   변경한 서버의 반영 + 읽는 서버의 조회이므로 최대 약 2 x sync-interval 동안 다른 서버는 이전 ETag/캐시 응답을 줄 수 있다.
+ * - DB에 아직 더하지 않은 변경이 있으면 버전 뒤에 인스턴스 식별자와 순번을 붙인다.
+ *   다른 서버가 같은 DB 버전에서 각자 변경해도 서로 다른 ETag가 되고, 반영이 끝나면 모든 서버가 같은 ETag로 모인다.
+ * - 커밋과 DB 반영 사이에 서버가 죽으면 그 변경은 다음 변경까지 다른 서버의 ETag에 나타나지 않는다.
+ * - 행은 처음 쓸 때 현재 시각(ms)에서 시작하므로 테이블을 새로 만들어도(개발 ddl-auto) 이전 ETag와 겹치지 않는다.
+ */
+@Slf4j
+@Component
+@Lazy(false)  // 지연 초기화(prod)에서도 스케줄 등록
+public class AggregateVersions {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String instance = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Aggregate, AtomicLong> unsynced = new EnumMap<>(Aggregate.class);
+    private final Map<Aggregate, AtomicLong> lastChange = new EnumMap<>(Aggregate.class);
+    private volatile Map<Aggregate, Long> versions;  // 마지막으로 읽은 DB 버전 (불변)
+
+    public AggregateVersions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (Aggregate aggregate : Aggregate.values()) {
+            unsynced.put(aggregate, new AtomicLong());
+            lastChange.put(aggregate, new AtomicLong());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChanged(AggregateChangedEvent event) {
+        long seq = sequence.incrementAndGet();
+        event.getAggregates().forEach(aggregate -> {
+            lastChange.get(aggregate).set(seq);
+            unsynced.get(aggregate).incrementAndGet();
+        });
+    }
+
+    /**
+     * 이 인스턴스의 변경을 DB에 더하고, 다른 인스턴스의 변경을 포함한 버전을 다시 읽는다.
+     * - 새 버전을 읽어서 스냅샷을 바꾼 뒤에 미반영 수를 줄이므로, 그 사이에도 이전 ETag로 돌아가지 않는다.
+     */
+    @Scheduled(fixedDelayString = "${jpashop.aggregate-version.sync-interval:1000}")
+    public synchronized void sync() {
+        Map<Aggregate, Long> flushed = new EnumMap<>(Aggregate.class);
+        try {
+            for (Aggregate aggregate : Aggregate.values()) {
+                long count = unsynced.get(aggregate).get();
+                if (count > 0) {
+                    if (increment(aggregate, count) == 0) {
+                        create(aggregate);
+                        increment(aggregate, count);
+                    }
+                    flushed.put(aggregate, count);
+                }
+            }
+            Map<Aggregate, Long> found = findVersions();
+            if (!found.keySet().containsAll(Set.of(Aggregate.values()))) {
+                for (Aggregate aggregate : Aggregate.values()) {
+                    if (!found.containsKey(aggregate)) {
+                        create(aggregate);
+                    }
+                }
+                found = findVersions();
+            }
+            versions = found;
+            flushed.forEach((aggregate, count) -> unsynced.get(aggregate).addAndGet(-count));
+        } catch (DataAccessException e) {
+            // 더한 만큼을 빼지 않으므로 다음 주기에 한 번 더 더해질 수 있다. (버전이 더 커질 뿐 이전 값으로 돌아가지 않음)
+            log.warn("aggregate_version 동기화 실패, 다음 주기에 다시 시도", e);
+        }
+    }
+
+    /**
+     * 응답이 의존하는 애그리거트들의 현재 버전으로 만든 약한 ETag (같은 데이터라도 JSON/Smile 등 표현이 다를 수 있으므로 weak)
+     */
+    public String etag(Set<Aggregate> aggregates) {
+        Map<Aggregate, Long> current = versions;
+        if (current == null) {  // 기동 후 첫 요청
+            sync();
+            current = versions;
+        }
+
+        StringBuilder sb = new StringBuilder("W/\"");
+        for (Aggregate aggregate : aggregates) {
+            if (sb.length() > 3) {
+                sb.append('-');
+            }
+            sb.append(Long.toString(current == null ? 0 : current.get(aggregate), 36));
+            if (unsynced.get(aggregate).get() > 0) {
+                sb.append('.').append(instance).append('.').append(Long.toString(lastChange.get(aggregate).get(), 36));
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private Map<Aggregate, Long> findVersions() {
+        Map<Aggregate, Long> found = new EnumMap<>(Aggregate.class);
+        jdbcTemplate.query("select aggregate, version from aggregate_version",
+                rs -> {
+                    found.put(Aggregate.valueOf(rs.getString(1)), rs.getLong(2));
+                });
+        return Map.copyOf(found);
+    }
+
+    private int increment(Aggregate aggregate, long count) {
+        return jdbcTemplate.update("update aggregate_version set version = version + ? where aggregate = ?", count, aggregate.name());
+    }
+
+    private void create(Aggregate aggregate) {
+        try {
+            jdbcTemplate.update("insert into aggregate_version (aggregate, version) values (?, ?)",
+                    aggregate.name(), System.currentTimeMillis());
+        } catch (DuplicateKeyException e) {
+            // 다른 서버가 먼저 만듦
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package jpabook.jpashop.web;
+
+/**
+ * 캐시에 저장하는 직렬화된 응답
+ */
+record CachedResponse(String contentType, String etag, byte[] body) {
+}
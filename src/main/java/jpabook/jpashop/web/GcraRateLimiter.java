@@ -0,0 +1,60 @@
+package jpabook.jpashop.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 키별 토큰 버킷 (GCRA : Generic Cell Rate Algorithm)
+ * - 키마다 "다음 요청이 허용되는 이론상 시각(TAT)" 하나만 AtomicLong으로 저장하고 CAS로 갱신한다. (잠금 없음)
+ * - 초당 ratePerSecond 개가 채워지고 최대 burst 개까지 몰아서 허용하는 토큰 버킷과 같다.
+ * - 키는 Caffeine에 두고 한동안 요청이 없으면 만료시키므로 클라이언트 수가 늘어도 메모리가 제한된다.
+ */
+public class GcraRateLimiter {
+
+    private final long emissionIntervalNanos;  // 토큰 1개가 채워지는 시간
+    private final long burstToleranceNanos;  // burst 개를 몰아서 쓸 수 있는 여유
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> theoreticalArrivals;
+
+    public GcraRateLimiter(double ratePerSecond, int burst, long maxKeys) {
+        this(ratePerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    GcraRateLimiter(double ratePerSecond, int burst, long maxKeys, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("ratePerSecond > 0, burst >= 1 이어야 합니다.");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.nanoClock = nanoClock;
+        this.theoreticalArrivals = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofNanos(emissionIntervalNanos * burst).plusSeconds(1))  // 버킷이 다시 가득 차면 상태가 필요 없음
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /**
+     * @return 허용이면 0, 거절이면 다음 요청까지 기다려야 하는 시간(ns)
+     */
+    public long tryAcquire(String key) {
+        AtomicLong tat = theoreticalArrivals.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = tat.get();
+            long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;  // 비어있던 시간만큼 토큰이 찼음
+            long next = base + emissionIntervalNanos;
+            long waitNanos = next - now - emissionIntervalNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
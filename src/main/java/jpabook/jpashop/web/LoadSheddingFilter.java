@@ -0,0 +1,197 @@
+package jpabook.jpashop.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * 클라이언트별 요청 수 제한 + 전체 동시 처리 한도
+ * 1. 클라이언트 + 메서드 + 엔드포인트마다 GcraRateLimiter로 제한 -> 429
+ *    - 클라이언트 : 접속 IP. X-Client-Id 헤더는 신뢰하는 게이트웨이(trustedProxies)에서 온 요청만 사용한다.
+ *    - 엔드포인트 : endpointPatterns 중 처음 일치하는 패턴, 없으면 숫자 경로 구간을 {id}로 바꾼 경로
+ *      (id를 바꿔가며 요청해도 같은 버킷을 쓴다)
+ * 2. AdaptiveConcurrencyLimiter로 우선순위별 동시 처리 수 제한 -> 503
+ *    - 쓰기 요청은 바로 거절하지 않고 writeQueueTimeout 동안 자리가 나기를 기다린다.
+ *    - latencyExcludedPatterns(대량 업로드, 스트리밍)는 원래 오래 걸리므로 응답 시간으로 한도를 조절하지 않는다.
+ * - 지표 : http.load.rejected(reason=rate|concurrency, priority), http.load.queued(priority),
+ *         http.load.limit, http.load.inflight
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final GcraRateLimiter readRateLimiter;
+    private final GcraRateLimiter expensiveReadRateLimiter;
+    private final GcraRateLimiter writeRateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final List<String> expensivePatterns;
+    private final List<String> endpointPatterns;
+    private final List<String> latencyExcludedPatterns;
+    private final Set<String> trustedProxies;
+    private final long writeQueueTimeoutNanos;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<RequestPriority, Counter> rateRejected = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> concurrencyRejected = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> queued = new EnumMap<>(RequestPriority.class);
+
+    public LoadSheddingFilter(GcraRateLimiter readRateLimiter,
+                              GcraRateLimiter expensiveReadRateLimiter,
+                              GcraRateLimiter writeRateLimiter,
+                              AdaptiveConcurrencyLimiter concurrencyLimiter,
+                              List<String> expensivePatterns,
+                              List<String> endpointPatterns,
+                              List<String> latencyExcludedPatterns,
+                              Set<String> trustedProxies,
+                              long writeQueueTimeoutMillis,
+                              MeterRegistry meterRegistry) {
+        this.readRateLimiter = readRateLimiter;
+        this.expensiveReadRateLimiter = expensiveReadRateLimiter;
+        this.writeRateLimiter = writeRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.expensivePatterns = expensivePatterns;
+        this.endpointPatterns = endpointPatterns;
+        this.latencyExcludedPatterns = latencyExcludedPatterns;
+        this.trustedProxies = trustedProxies;
+        this.writeQueueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeQueueTimeoutMillis);
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            String tag = priority.name().toLowerCase();
+            rateRejected.put(priority, Counter.builder("http.load.rejected")
+                    .tag("reason", "rate").tag("priority", tag).register(meterRegistry));
+            concurrencyRejected.put(priority, Counter.builder("http.load.rejected")
+                    .tag("reason", "concurrency").tag("priority", tag).register(meterRegistry));
+            queued.put(priority, Counter.builder("http.load.queued")
+                    .tag("priority", tag).register(meterRegistry));
+        }
+        Gauge.builder("http.load.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("http.load.inflight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight).register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RequestPriority priority = priorityOf(request.getMethod(), path);
+
+        long waitNanos = rateLimiterOf(priority).tryAcquire(clientKey(request, path));
+        if (waitNanos > 0) {
+            rateRejected.get(priority).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos))));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+
+        if (!acquire(priority)) {
+            concurrencyRejected.get(priority).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        if (matchesAny(latencyExcludedPatterns, path)) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                concurrencyLimiter.release();
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private boolean acquire(RequestPriority priority) {
+        if (concurrencyLimiter.tryAcquire(priority)) {
+            return true;
+        }
+        if (priority != RequestPriority.WRITE || writeQueueTimeoutNanos <= 0) {
+            return false;
+        }
+
+        // 쓰기 요청은 잠시 기다린다.
+        queued.get(priority).increment();
+        long deadline = System.nanoTime() + writeQueueTimeoutNanos;
+        while (System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            if (concurrencyLimiter.tryAcquire(priority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RequestPriority priorityOf(String method, String path) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return RequestPriority.WRITE;
+        }
+        return matchesAny(expensivePatterns, path) ? RequestPriority.EXPENSIVE_READ : RequestPriority.READ;
+    }
+
+    private boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private GcraRateLimiter rateLimiterOf(RequestPriority priority) {
+        return switch (priority) {
+            case WRITE -> writeRateLimiter;
+            case READ -> readRateLimiter;
+            case EXPENSIVE_READ -> expensiveReadRateLimiter;
+        };
+    }
+
+    private String clientKey(HttpServletRequest request, String path) {
+        return clientOf(request) + " " + request.getMethod() + " " + endpointOf(path);
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (trustedProxies.contains(remoteAddr)) {
+            String clientId = request.getHeader(CLIENT_ID_HEADER);
+            if (StringUtils.hasText(clientId)) {
+                return clientId;
+            }
+        }
+        return remoteAddr;
+    }
+
+    private String endpointOf(String path) {
+        for (String pattern : endpointPatterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return pattern;
+            }
+        }
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+}
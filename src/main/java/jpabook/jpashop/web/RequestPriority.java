@@ -0,0 +1,21 @@
+package jpabook.jpashop.web;
+
+/**
+ * 부하가 높을 때 먼저 버릴 요청 순서 (EXPENSIVE_READ -> READ -> WRITE)
+ */
+public enum RequestPriority {
+
+    WRITE(1.0),  // 주문, 취소 등 : 한도 전부 사용
+    READ(0.8),  // 일반 조회
+    EXPENSIVE_READ(0.5);  // 전체 엔티티 그래프를 직렬화하는 조회 등
+
+    private final double limitShare;  // 동시 처리 한도 중 이 우선순위가 쓸 수 있는 비율
+
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    public double getLimitShare() {
+        return limitShare;
+    }
+}
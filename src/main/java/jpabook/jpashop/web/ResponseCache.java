@@ -0,0 +1,71 @@
+package jpabook.jpashop.web;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 주문 조회 API의 직렬화된 응답 캐시
+ * - 응답 바이트 크기(weight)로 전체 용량을 제한한다.
+ * - 같은 키는 한 요청만 실제로 처리하고 나머지는 그 결과를 기다린다. (single-flight)
+ * - 키에 애그리거트 버전이 들어가므로 다른 인스턴스의 변경 후에는 새 키로 조회한다. (이전 버전 항목은 용량 제한으로 밀려남)
+ * - 이 인스턴스의 주문/취소/상품/회원 변경 이벤트가 커밋되면 전부 무효화한다. (주문 목록은 회원 이름, 상품 이름을 포함)
+ * - 지표 : cache.gets(hit/miss), cache.load.duration, cache.size 등 (name = orderResponses)
+ */
+@Component
+public class ResponseCache {
+
+    private static final Set<Aggregate> DEPENDS_ON = EnumSet.allOf(Aggregate.class);
+
+    private final AggregateVersions aggregateVersions;
+    private final AsyncCache<String, CachedResponse> cache;
+
+    public ResponseCache(AggregateVersions aggregateVersions,
+                         MeterRegistry meterRegistry,
+                         @Value("${jpashop.response-cache.max-bytes:67108864}") long maxBytes) {
+        this.aggregateVersions = aggregateVersions;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, CachedResponse>weigher((key, value) -> key.length() + value.body().length)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orderResponses");
+    }
+
+    /**
+     * 키에 해당하는 future를 반환한다. 없으면 loading을 등록하고 그대로 반환하므로,
+     * 반환값 == loading 이면 호출한 쪽이 직접 응답을 만들어 complete 해야 한다.
+     */
+    CompletableFuture<CachedResponse> getOrRegister(String key, CompletableFuture<CachedResponse> loading) {
+        return cache.get(key, (k, executor) -> loading);
+    }
+
+    /**
+     * 로딩 도중 데이터가 바뀌었으면(무효화 이후에 완료된 경우) 방금 넣은 값을 버린다.
+     */
+    void discardIfStale(String key, CompletableFuture<CachedResponse> loaded, String versionAtStart) {
+        if (!versionAtStart.equals(currentVersion())) {
+            cache.asMap().remove(key, loaded);
+        }
+    }
+
+    String currentVersion() {
+        return aggregateVersions.etag(DEPENDS_ON);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChanged(AggregateChangedEvent event) {
+        cache.synchronous().invalidateAll();
+    }
+}
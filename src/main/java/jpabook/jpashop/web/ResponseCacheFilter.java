@@ -0,0 +1,105 @@
+package jpabook.jpashop.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * GET 응답을 (URI + 쿼리 + Accept + 애그리거트 버전) 키로 ResponseCache에 저장하고, 다음 요청부터는 컨트롤러 없이 바이트를 그대로 쓴다.
+ * - 버전(AggregateVersions, DB 공유)이 키에 들어가므로 다른 인스턴스에서 데이터가 바뀌어도 이전 응답을 쓰지 않는다.
+ *   (버전은 메모리 스냅샷이라 키 계산에 DB를 쓰지 않는다. 다른 인스턴스의 변경은 sync 주기만큼 늦게 반영됨)
+ * - 200 응답만 저장한다. (304, 에러 등은 저장하지 않고 기다리던 요청은 각자 처리)
+ * - 로딩 중인 요청은 어떤 예외(Error 포함)로 끝나도 future를 완료한다. 기다리는 요청도 loadWait까지만 기다리고 직접 처리한다.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private final ResponseCache responseCache;
+    private final Duration loadWait;
+
+    public ResponseCacheFilter(ResponseCache responseCache, Duration loadWait) {
+        this.responseCache = responseCache;
+        this.loadWait = loadWait;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String versionAtStart = responseCache.currentVersion();
+        String key = request.getRequestURI() + "?" + nullToEmpty(request.getQueryString())
+                + "|" + nullToEmpty(request.getHeader(HttpHeaders.ACCEPT)) + "|" + versionAtStart;
+        CompletableFuture<CachedResponse> loading = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> future = responseCache.getOrRegister(key, loading);
+
+        if (future != loading) {  // 캐시 히트 or 다른 요청이 로딩 중
+            CachedResponse cached = awaitQuietly(future);
+            if (cached != null) {
+                write(cached, request, response);
+            } else {
+                chain.doFilter(request, response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+                loading.complete(new CachedResponse(wrapper.getContentType(), wrapper.getHeader(HttpHeaders.ETAG),
+                        wrapper.getContentAsByteArray()));
+                responseCache.discardIfStale(key, loading, versionAtStart);
+            } else {
+                loading.complete(null);  // null 값은 캐시에 남지 않는다.
+            }
+        } catch (Throwable e) {
+            loading.completeExceptionally(e);  // 실패한 future는 캐시에서 제거된다. (OutOfMemoryError 등도 포함)
+            throw e;
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static void write(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (cached.etag() != null && new ServletWebRequest(request, response).checkNotModified(cached.etag())) {
+            return;  // 304
+        }
+        response.setContentType(cached.contentType());
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private CachedResponse awaitQuietly(CompletableFuture<CachedResponse> future) {
+        try {
+            return future.get(loadWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            return null;  // 로딩한 요청이 실패했거나 너무 오래 걸리면 직접 처리
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,148 @@
+-- 초기 스키마 (prod 프로필 : ddl-auto 대신 Flyway로 생성하고 hibernate는 validate만 한다)
+-- 엔티티를 바꾸면 새 버전의 마이그레이션을 추가할 것
+
+create sequence member_seq start with 1 increment by 50;
+create sequence item_seq start with 1 increment by 50;
+create sequence category_seq start with 1 increment by 50;
+create sequence delivery_seq start with 1 increment by 50;
+create sequence orders_seq start with 1 increment by 50;
+create sequence order_item_seq start with 1 increment by 50;
+create sequence bulk_cancel_job_seq start with 1 increment by 50;
+
+create table member (
+    member_id bigint not null,
+    name varchar(255),
+    city varchar(255),
+    street varchar(255),
+    zipcode varchar(255),
+    primary key (member_id)
+);
+
+create table item (
+    dtype varchar(31) not null,
+    item_id bigint not null,
+    name varchar(255),
+    price integer not null,
+    stock_quantity integer not null,
+    version bigint,
+    artist varchar(255),
+    etc varchar(255),
+    author varchar(255),
+    isbn varchar(255),
+    director varchar(255),
+    actor varchar(255),
+    primary key (item_id)
+);
+
+create table category (
+    category_id bigint not null,
+    name varchar(255),
+    parent_id bigint,
+    primary key (category_id),
+    constraint fk_category_parent foreign key (parent_id) references category (category_id)
+);
+
+create table category_item (
+    category_id bigint not null,
+    item_id bigint not null,
+    constraint fk_category_item_category foreign key (category_id) references category (category_id),
+    constraint fk_category_item_item foreign key (item_id) references item (item_id)
+);
+
+create table delivery (
+    delivery_id bigint not null,
+    city varchar(255),
+    street varchar(255),
+    zipcode varchar(255),
+    status enum ('READY','COMP'),
+    primary key (delivery_id)
+);
+create index idx_delivery_status on delivery (status, delivery_id);
+
+create table orders (
+    order_id bigint not null,
+    member_id bigint,
+    delivery_id bigint unique,
+    order_date timestamp(6),
+    status enum ('ORDER','CANCEL'),
+    version bigint,
+    total_amount bigint,
+    primary key (order_id),
+    constraint fk_orders_member foreign key (member_id) references member (member_id),
+    constraint fk_orders_delivery foreign key (delivery_id) references delivery (delivery_id)
+);
+create index idx_orders_member_order_date on orders (member_id, order_date);
+
+create table order_item (
+    order_item_id bigint not null,
+    item_id bigint,
+    order_id bigint,
+    order_price integer not null,
+    count integer not null,
+    primary key (order_item_id),
+    constraint fk_order_item_item foreign key (item_id) references item (item_id),
+    constraint fk_order_item_orders foreign key (order_id) references orders (order_id)
+);
+
+create table daily_item_sales (
+    sales_date date not null,
+    item_id bigint not null,
+    status enum ('ORDER','CANCEL') not null,
+    revenue bigint not null,
+    quantity bigint not null,
+    primary key (sales_date, item_id, status)
+);
+
+create table bulk_cancel_job (
+    bulk_cancel_job_id bigint not null,
+    order_date_from timestamp(6),
+    order_date_to timestamp(6),
+    item_id bigint,
+    status enum ('RUNNING','COMPLETED'),
+    last_order_id bigint,
+    canceled_count bigint not null,
+    skipped_count bigint not null,
+    updated_at timestamp(6),
+    primary key (bulk_cancel_job_id)
+);
+
+create table idempotency_key (
+    idempotency_key varchar(100) not null,
+    request_hash varchar(255),
+    order_id bigint,
+    created_at timestamp(6),
+    primary key (idempotency_key)
+);
+create index idx_idempotency_key_created_at on idempotency_key (created_at);
+
+-- 보관 테이블 (운영 테이블과 외래 키로 묶지 않음)
+create table orders_archive (
+    order_id bigint not null,
+    member_id bigint,
+    delivery_id bigint,
+    order_date timestamp(6),
+    status enum ('ORDER','CANCEL'),
+    version bigint,
+    total_amount bigint,
+    archived_at timestamp(6),
+    primary key (order_id)
+);
+
+create table order_item_archive (
+    order_item_id bigint not null,
+    order_id bigint,
+    item_id bigint,
+    order_price integer not null,
+    count integer not null,
+    primary key (order_item_id)
+);
+create index idx_order_item_archive_order on order_item_archive (order_id);
+
+create table delivery_archive (
+    delivery_id bigint not null,
+    city varchar(255),
+    street varchar(255),
+    zipcode varchar(255),
+    status enum ('READY','COMP'),
+    primary key (delivery_id)
+);
@@ -0,0 +1,10 @@
+-- 조회 조건에 맞춘 인덱스 (엔티티의 @Index와 같게 유지, QueryPlanTest로 확인)
+
+-- MemberRepository.findByName, OrderRepository 회원 이름 검색
+create index idx_member_name on member (name);
+
+-- OrderRepository 상태 검색, BulkCancelRepository keyset(status, order_id > ?), sumTotalAmount(커버링)
+create index idx_orders_status on orders (status, order_id, total_amount);
+
+-- OrderQueryRepository orderItems IN 조회 : OrderItemQueryDto(order_id, item_id -> name, order_price, count) 커버링
+create index idx_order_item_order on order_item (order_id, item_id, order_price, count);
@@ -0,0 +1,4 @@
+-- 주문 취소 시각 (OrderAnalyticsSnapshot이 마지막 갱신 이후 취소된 주문만 읽는 기준)
+alter table orders add column canceled_at timestamp(6);
+
+create index idx_orders_canceled_at on orders (canceled_at);
@@ -0,0 +1,6 @@
+-- 애그리거트별 변경 카운터 (ETag, 응답 캐시 키). 모든 인스턴스가 같은 행을 읽고 올린다.
+create table aggregate_version (
+    aggregate enum ('ITEM','MEMBER','ORDER') not null,
+    version bigint not null,
+    primary key (aggregate)
+);
@@ -0,0 +1,7 @@
+-- 집계 테이블 도입 전에 쌓인 주문을 일별 매출 집계에 반영 (1회성)
+-- 이후 주문/취소는 OrderService가 같은 트랜잭션에서 증분으로 반영한다.
+insert into daily_item_sales (sales_date, item_id, status, revenue, quantity)
+select cast(o.order_date as date), oi.item_id, o.status, sum(cast(oi.order_price as bigint) * oi.count), sum(oi.count)
+from orders o join order_item oi on oi.order_id = o.order_id
+where not exists (select 1 from daily_item_sales)
+group by cast(o.order_date as date), oi.item_id, o.status;
@@ -0,0 +1,2 @@
+-- 보관된 주문도 취소 시각을 유지 (조회 시 Order.canceledAt으로 복원)
+alter table orders_archive add column canceled_at timestamp(6);
@@ -0,0 +1,143 @@
+package jpabook.jpashop.smoke;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 네이티브 바이너리 스모크 테스트 (./gradlew nativeSmokeTest)
+ * 실행 중인 애플리케이션을 HTTP로만 호출해서 힌트가 빠진 곳(리플렉션, 리소스, 프록시)을 찾는다.
+ * - 화면 : Thymeleaf 템플릿, 폼 바인딩
+ * - 주문 : 상품(Book) 생성, 주문 생성
+ * - 조회 : 엔티티 직접 노출(Hibernate5JakartaModule + 지연 로딩), fetch join, DTO 생성자 표현식
+ * prod 프로필(빈 DB)로 뜨므로 필요한 데이터는 순서대로 만든다.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeSmokeTest {
+
+    private static final String BASE_URL = System.getProperty("smoke.baseUrl", "http://localhost:18080");
+    private static final String MEMBER_NAME = "smoke-member";
+    private static final String ITEM_NAME = "smoke-book";
+    private static final Pattern ITEM_ID = Pattern.compile("/items/(\\d+)/edit");
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Long memberId;
+    private static Long itemId;
+
+    @Test
+    @Order(1)
+    void 헬스_체크() throws Exception {
+        HttpResponse<String> response = get("/actuator/health");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("UP"));
+    }
+
+    @Test
+    @Order(2)
+    void 화면_템플릿() throws Exception {
+        assertTrue(get("/").body().contains("HELLO SHOP"));
+        assertEquals(200, get("/members/new").statusCode());
+        assertEquals(200, get("/items/new").statusCode());
+    }
+
+    @Test
+    @Order(3)
+    void 회원_가입_API() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/v2/members"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"" + MEMBER_NAME + "\"}")));
+
+        assertEquals(200, response.statusCode());
+        memberId = objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    @Test
+    @Order(4)
+    void 상품_등록_폼() throws Exception {
+        HttpResponse<String> response = postForm("/items/new", Map.of(
+                "name", ITEM_NAME, "price", "10000", "stockQuantity", "100", "author", "kim", "isbn", "1234"));
+        assertEquals(302, response.statusCode());
+
+        Matcher matcher = ITEM_ID.matcher(get("/items").body());
+        assertTrue(matcher.find(), "상품 목록에 등록한 상품이 보여야 한다.");
+        itemId = Long.valueOf(matcher.group(1));
+    }
+
+    @Test
+    @Order(5)
+    void 주문() throws Exception {
+        assertTrue(get("/order").body().contains(ITEM_NAME));
+
+        HttpResponse<String> response = postForm("/order", Map.of(
+                "memberId", String.valueOf(memberId), "itemId", String.valueOf(itemId), "count", "2",
+                "idempotencyKey", UUID.randomUUID().toString()));
+
+        assertEquals(302, response.statusCode());
+        assertTrue(get("/orders").body().contains(MEMBER_NAME));
+    }
+
+    @Test
+    @Order(6)
+    void 주문_조회_API() throws Exception {
+        // 엔티티 직접 노출 : 지연 로딩된 member, delivery + Hibernate5JakartaModule
+        assertOk("/api/v1/simple-orders", MEMBER_NAME);
+        // 지연 로딩으로 DTO 변환, fetch join
+        assertOk("/api/v2/simple-orders", MEMBER_NAME);
+        assertOk("/api/v3/simple-orders", MEMBER_NAME);
+        // JPQL 생성자 표현식
+        assertOk("/api/v4/simple-orders", MEMBER_NAME);
+        // orderItems -> item(Book) 지연 로딩, 컬렉션 조회
+        assertOk("/api/v2/orders", ITEM_NAME);
+        assertOk("/api/v3.2/orders", ITEM_NAME);
+        assertOk("/api/v5/orders", ITEM_NAME);
+        assertOk("/api/v6/orders", ITEM_NAME);
+    }
+
+    private static void assertOk(String path, String expected) throws Exception {
+        HttpResponse<String> response = get(path);
+        assertEquals(200, response.statusCode(), path);
+        assertTrue(response.body().contains(expected), path + " : " + response.body());
+    }
+
+    private static HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private static HttpResponse<String> postForm(String path, Map<String, String> form) throws Exception {
+        String body = form.entrySet().stream()
+                .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private static URI uri(String path) {
+        return URI.create(BASE_URL + path);
+    }
+}
@@ -0,0 +1,74 @@
+package jpabook.jpashop.analytics;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 갱신 경로 : 새 주문 적재 + 지난 갱신 이후 취소된 주문 반영
+ * 스냅샷이 커밋된 데이터를 읽어야 하므로 테스트 트랜잭션 없이 실행하고, settle을 0으로 둔다.
+ */
+@SpringBootTest(properties = "jpashop.analytics.settle=0s")
+class OrderAnalyticsSnapshotTest {
+
+    @Autowired OrderAnalyticsSnapshot snapshot;
+    @Autowired OrderService orderService;
+    @Autowired ItemService itemService;
+    @Autowired MemberService memberService;
+
+    @Test
+    void 갱신하면_새_주문과_취소된_주문을_반영() throws Exception {
+        //given
+        String memberName = "분석 회원 " + UUID.randomUUID();
+        Long memberId = createMember(memberName);
+        Long itemId = createBook();
+        Long canceledOrderId = orderService.order(memberId, itemId, 1);
+        orderService.order(memberId, itemId, 2);
+        Thread.sleep(5);  // orderDate < 갱신 시각
+        snapshot.refresh();
+        assertEquals(Map.of("ORDER", 3L), sumQuantityByStatus(memberName));
+
+        //when
+        orderService.cancelOrder(canceledOrderId);
+        Thread.sleep(5);  // canceledAt < 갱신 시각
+        snapshot.refresh();
+
+        //then
+        assertEquals(Map.of("ORDER", 2L, "CANCEL", 1L), sumQuantityByStatus(memberName));
+    }
+
+    private Map<String, Long> sumQuantityByStatus(String memberName) {
+        OrderAnalyticsQuery query = new OrderAnalyticsQuery();
+        query.setMeasure(OrderAnalyticsQuery.Measure.QUANTITY);
+        query.setGroupBy(OrderAnalyticsQuery.GroupBy.STATUS);
+        query.setMemberName(memberName);
+        return snapshot.sum(query);
+    }
+
+    private Long createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "1", "1111"));
+        return memberService.join(member);
+    }
+
+    private Long createBook() {
+        Book book = new Book();
+        book.setName("분석 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(100);
+        itemService.save(book);
+        return book.getId();
+    }
+}
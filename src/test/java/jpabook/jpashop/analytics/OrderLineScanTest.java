@@ -0,0 +1,51 @@
+package jpabook.jpashop.analytics;
+
+import jpabook.jpashop.domain.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderLineScanTest {
+
+    @Test
+    void 상태필터_상품별_매출() {
+        //given : fork가 일어나도록 THRESHOLD보다 많은 줄을 적재
+        OrderLineColumns columns = new OrderLineColumns();
+        int orders = 100_000;
+        for (long orderId = 1; orderId <= orders; orderId++) {
+            columns.append(orderId, OrderStatus.ORDER.ordinal(), "userA", "JPA1 BOOK", 10000, 1);
+            columns.append(orderId, OrderStatus.ORDER.ordinal(), "userA", "JPA2 BOOK", 20000, 2);
+        }
+        columns.updateStatus(1L, OrderStatus.CANCEL.ordinal());
+
+        OrderAnalyticsQuery query = new OrderAnalyticsQuery();
+        query.setStatus(OrderStatus.ORDER);
+        OrderLineColumns.View view = columns.view();
+
+        //when
+        long[] sums = ForkJoinPool.commonPool().invoke(new OrderLineScan(view, query, view.itemNames().length,
+                OrderStatus.ORDER.ordinal(), -1, -1, 0, view.size()));
+
+        //then : 취소된 1번 주문의 두 줄은 제외된다.
+        assertArrayEquals(new String[]{"JPA1 BOOK", "JPA2 BOOK"}, view.itemNames());
+        assertEquals(10000L * (orders - 1), sums[0]);
+        assertEquals(40000L * (orders - 1), sums[1]);
+    }
+
+    @Test
+    void 상태_변경은_이미_공개한_view에_보이지_않는다() {
+        //given
+        OrderLineColumns columns = new OrderLineColumns();
+        columns.append(1L, OrderStatus.ORDER.ordinal(), "userA", "JPA1 BOOK", 10000, 1);
+        OrderLineColumns.View before = columns.view();
+
+        //when
+        columns.updateStatus(1L, OrderStatus.CANCEL.ordinal());
+
+        //then
+        assertEquals(OrderStatus.ORDER.ordinal(), before.statuses()[0]);
+        assertEquals(OrderStatus.CANCEL.ordinal(), columns.view().statuses()[0]);
+    }
+}
@@ -0,0 +1,45 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.service.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ApiMemberControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired MemberService memberService;
+
+    @Test
+    void 변경이_없으면_304_변경되면_200() throws Exception {
+        //given
+        String etag = mockMvc.perform(get("/api/v2/members"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        //when, then : 변경 없음
+        mockMvc.perform(get("/api/v2/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        //when, then : 회원 가입(커밋) 후에는 새 응답
+        Member member = new Member();
+        member.setName("etag-member");
+        memberService.join(member);
+
+        String newEtag = mockMvc.perform(get("/api/v2/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+    }
+}
@@ -0,0 +1,105 @@
+package jpabook.jpashop.api;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 대표 주문 조회 API를 호출하고 연관관계별 fetch 쿼리 수 / 쿼리당 초기화한 인스턴스 수, 요청 전체의 쿼리당 로딩 엔티티 수를 로그로 남긴다.
+ * - @BatchSize, @Fetch(SUBSELECT) 설정을 바꿀 때 이 결과로 비교한다.
+ * - 연관관계마다 지연 로딩 쿼리가 1번(배치 1개)으로 끝나는지 검증한다.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+class FetchProfilingTest {
+
+    private static final String[] COLLECTIONS = {
+            Order.class.getName() + ".orderItems",
+            Member.class.getName() + ".orders",
+            "jpabook.jpashop.domain.Category.items"
+    };
+    private static final Class<?>[] ENTITIES = {Member.class, Delivery.class, Book.class};
+
+    @Autowired MockMvc mockMvc;
+    @Autowired EntityManagerFactory emf;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        // 주문 50건 : 회원 5명 x 상품 10개
+        for (int m = 0; m < 5; m++) {
+            Member member = new Member();
+            member.setName("profile" + m);
+            member.setAddress(new Address("서울", "1", "1111"));
+            memberService.join(member);
+            for (int i = 0; i < 10; i++) {
+                Book book = new Book();
+                book.setName("profile BOOK " + m + "-" + i);
+                book.setPrice(1000);
+                book.setStockQuantity(10);
+                itemService.save(book);
+                orderService.order(member.getId(), book.getId(), 1);
+            }
+        }
+    }
+
+    @Test
+    void 주문_조회_API_연관관계별_fetch() throws Exception {
+        for (String uri : new String[]{"/api/v1/orders", "/api/v2/orders", "/api/v3.1/orders?limit=1000"}) {
+            Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            mockMvc.perform(get(uri).header("X-Client-Id", "fetch-profiling"))
+                    .andExpect(status().isOk());
+
+            long statements = statistics.getPrepareStatementCount();
+            long entitiesLoaded = statistics.getEntityLoadCount();  // 결과 행에서 만든 엔티티 수
+            log.info("[fetch profile] {} : statements={}, entities loaded={}, entities/statement={}",
+                    uri, statements, entitiesLoaded, statements == 0 ? 0 : entitiesLoaded / statements);
+            for (String role : COLLECTIONS) {
+                CollectionStatistics collection = statistics.getCollectionStatistics(role);
+                report(uri, role, collection.getFetchCount(), collection.getLoadCount());
+                assertTrue(collection.getFetchCount() <= 1, uri + " " + role + " 지연 로딩은 배치 1번이어야 한다.");
+            }
+            for (Class<?> entity : ENTITIES) {
+                EntityStatistics entityStatistics = statistics.getEntityStatistics(entity.getName());
+                report(uri, entity.getSimpleName(), entityStatistics.getFetchCount(), entityStatistics.getLoadCount());
+            }
+            assertTrue(statements <= 6,
+                    uri + " : 주문 1 + 회원 1 + 배송 1 + 주문상품 1 + 상품 1 이내여야 한다. actual=" + statements);
+        }
+    }
+
+    /**
+     * @param fetches 지연 로딩 쿼리 수
+     * @param loaded 초기화한 인스턴스 수 (컬렉션은 컬렉션 개수, 엔티티는 엔티티 개수. 행 수가 아님)
+     */
+    private static void report(String uri, String association, long fetches, long loaded) {
+        log.info("[fetch profile] {} {} : fetches={}, instances={}, instances/fetch={}",
+                uri, association, fetches, loaded, fetches == 0 ? 0 : loaded / fetches);
+    }
+}
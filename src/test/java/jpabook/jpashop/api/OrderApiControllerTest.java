@@ -0,0 +1,138 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderSearch;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.ItemService;
+import lombok.Getter;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderApiControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired OrderService orderService;
+    @Autowired OrderRepository orderRepository;
+    @Autowired ObjectMapper objectMapper;
+
+    @Test
+    void 기본_응답은_JSON() throws Exception {
+        mockMvc.perform(get("/api/v5/orders"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void Accept_헤더로_Smile_응답() throws Exception {
+        //when
+        MvcResult result = mockMvc.perform(get("/api/v5/orders").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"))
+                .andReturn();
+
+        //then
+        JsonNode body = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertTrue(body.isArray());
+        assertTrue(body.get(0).has("orderItems"));
+    }
+
+    @Test
+    @Transactional
+    void 주문_목록_응답은_이전_DTO와_같은_형태() throws Exception {
+        //given
+        orderService.order(memberService.findMembers().get(0).getId(), itemService.findItems().get(0).getId(), 2);
+
+        //when, then : 같은 엔티티를 이전 OrderDto로 직렬화한 결과와 필드 이름, 중첩, 값이 모두 같아야 한다.
+        assertSameAsDto("/api/v2/orders", orderRepository.findAllByString(new OrderSearch()));
+        assertSameAsDto("/api/v3/orders", orderRepository.findAllwithItem());
+        assertSameAsDto("/api/v3.1/orders?offset=0&limit=100", orderRepository.findAllWithMemberDelivery(0, 100));
+    }
+
+    private void assertSameAsDto(String uri, List<Order> orders) throws Exception {
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(orders.stream().map(OrderDto::new).toList()));
+        JsonNode actual = objectMapper.readTree(mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray());
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual, uri);
+    }
+
+    @Test
+    void 주문이_들어오면_응답_캐시가_무효화된다() throws Exception {
+        //given
+        int before = objectMapper.readTree(mockMvc.perform(get("/api/v6/orders")).andReturn().getResponse().getContentAsByteArray()).size();
+        int cached = objectMapper.readTree(mockMvc.perform(get("/api/v6/orders")).andReturn().getResponse().getContentAsByteArray()).size();
+
+        //when
+        orderService.order(memberService.findMembers().get(0).getId(), itemService.findItems().get(0).getId(), 1);
+
+        //then
+        int after = objectMapper.readTree(mockMvc.perform(get("/api/v6/orders")).andReturn().getResponse().getContentAsByteArray()).size();
+        assertEquals(before, cached);
+        assertEquals(before + 1, after);
+    }
+
+    /**
+     * OrderListResponse 이전의 v2, v3, v3.1 응답 DTO (비교 기준)
+     */
+    @Getter
+    static class OrderDto {
+
+        private final Long orderId;
+        private final String name;
+        private final LocalDateTime orderDate;
+        private final OrderStatus orderStatus;
+        private final Address address;
+        private final List<OrderItemDto> orderItems;
+
+        OrderDto(Order order) {
+            orderId = order.getId();
+            name = order.getMember().getName();
+            orderDate = order.getOrderDate();
+            orderStatus = order.getStatus();
+            address = order.getDelivery().getAddress();
+            orderItems = order.getOrderItems().stream().map(OrderItemDto::new).toList();
+        }
+    }
+
+    @Getter
+    static class OrderItemDto {
+
+        private final String itemName;
+        private final int orderPrice;
+        private final int count;
+
+        OrderItemDto(OrderItem orderItem) {
+            itemName = orderItem.getItem().getName();
+            orderPrice = orderItem.getOrderPrice();
+            count = orderItem.getCount();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package jpabook.jpashop.config;
+
+import com.fasterxml.jackson.datatype.hibernate5.jakarta.Hibernate5JakartaModule;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.DailySalesRollup;
+import jpabook.jpashop.domain.DailySalesRollupId;
+import jpabook.jpashop.domain.IdempotencyKey;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Album;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Movie;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsConfigTest() {
+        new NativeHintsConfig.JpashopRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void 상품_하위_타입_생성() {
+        for (Class<?> type : new Class<?>[]{Book.class, Album.class, Movie.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS)
+                    .test(hints), type.getSimpleName());
+        }
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Order.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+    }
+
+    @Test
+    void 스캔한_관리_타입_모두_포함() {
+        //목록에 따로 적지 않아도 엔티티, 임베디드 타입이 들어간다.
+        for (Class<?> type : new Class<?>[]{IdempotencyKey.class, DailySalesRollup.class, DailySalesRollupId.class, Address.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints), type.getSimpleName());
+        }
+    }
+
+    @Test
+    void JPQL_생성자_표현식_DTO() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(OrderSimpleQueryDto.class.getConstructor(
+                Long.class, String.class, LocalDateTime.class, OrderStatus.class, Address.class))
+                .invoke().test(hints));
+    }
+
+    @Test
+    void 모든_템플릿_포함() throws Exception {
+        Resource[] templates = new PathMatchingResourcePatternResolver().getResources("classpath:templates/**/*.html");
+        assertTrue(templates.length > 0);
+        for (Resource template : templates) {
+            String path = template.getURL().getPath();
+            String location = path.substring(path.lastIndexOf("templates/"));
+            assertTrue(RuntimeHintsPredicates.resource().forResource(location).test(hints), location);
+        }
+    }
+
+    @Test
+    void Hibernate5JakartaModule_직렬화기() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Hibernate5JakartaModule.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.fasterxml.jackson.datatype.hibernate5.jakarta.HibernateProxySerializer"))
+                .test(hints));
+    }
+}
@@ -0,0 +1,66 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.OrderService;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderRepositoryTest {
+
+    @Autowired EntityManager em;
+    @Autowired OrderRepository orderRepository;
+    @Autowired OrderService orderService;
+
+    @Test
+    void 컬렉션_fetch_join_페이징은_limit_만큼만_로딩() {
+        //given
+        Member member = new Member();
+        member.setName("페이징 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        em.persist(member);
+        Book book = new Book();
+        book.setName("페이징 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(1000);
+        em.persist(book);
+        for (int i = 0; i < 200; i++) {
+            orderService.order(member.getId(), book.getId(), 1);
+        }
+        em.flush();
+        em.clear();
+
+        long total = em.createQuery("select count(o) from Order o", Long.class).getSingleResult();
+        int limit = 10;
+        int offset = (int) total - limit - 5;  // 뒤쪽 페이지
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        List<Order> orders = orderRepository.findAllWithItem(offset, limit);
+
+        //then
+        assertEquals(limit, orders.size());
+        for (int i = 1; i < orders.size(); i++) {
+            assertTrue(orders.get(i - 1).getId() < orders.get(i).getId(), "id 순서 유지");
+        }
+        assertTrue(Hibernate.isInitialized(orders.get(0).getOrderItems()));
+        assertEquals(limit, statistics.getEntityStatistics(Order.class.getName()).getLoadCount(),
+                "페이지에 포함된 주문만 로딩한다.");
+        assertEquals(2, statistics.getQueryExecutionCount(), "id 페이징 1번 + fetch join 1번");
+    }
+}
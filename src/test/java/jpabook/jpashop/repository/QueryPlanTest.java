@@ -0,0 +1,180 @@
+package jpabook.jpashop.repository;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import jpabook.jpashop.domain.OrderSearch;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 조회 쿼리 실행 계획 검사
+ * - 스키마는 Flyway 마이그레이션으로 만들고 엔티티는 validate (마이그레이션과 @Index가 어긋나면 실패)
+ * - 데이터를 충분히 넣고 ANALYZE 한 뒤, 저장소 메서드가 실제로 실행한 SQL(p6spy가 값을 채운 SQL)을 EXPLAIN 해서
+ *   tableScan이 있으면 실패한다.
+ * 검사하지 않는 쿼리
+ * - where 조건이 없는 전체 조회(findAll, findAllByDto_flat 등) : 원래 전체를 읽는다.
+ * - findAllByCriteria의 회원 이름 검색 : '%이름%' (앞쪽 와일드카드)는 인덱스를 사용할 수 없다.
+ * - findIdRangeWithoutTotalAmount : 한 번만 실행하는 backfill 용
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plan;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class QueryPlanTest {
+
+    private static final int MEMBERS = 2_000;
+    private static final int ITEMS = 100;
+    private static final int ORDERS = 20_000;
+    private static final long ID_BASE = 1_000_000;  // 시퀀스(InitDb 등)와 겹치지 않게
+    private static boolean seeded;
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired SqlCapture sqlCapture;
+    @Autowired MemberRepository memberRepository;
+    @Autowired OrderRepository orderRepository;
+    @Autowired OrderQueryRepository orderQueryRepository;
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+    }
+
+    /**
+     * 실행된 select 문을 바인딩 값이 채워진 상태로 모은다. (값이 있어야 like 'abc' 같은 조건도 인덱스 조건이 됨)
+     */
+    static class SqlCapture extends SimpleJdbcEventListener {
+
+        private final List<String> queries = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            String sql = statementInformation.getSqlWithValues();
+            if (sql.stripLeading().toLowerCase().startsWith("select")) {
+                queries.add(sql);
+            }
+        }
+
+        List<String> drain() {
+            List<String> result = new ArrayList<>(queries);
+            queries.clear();
+            return result;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        List<Object[]> members = new ArrayList<>();
+        for (int i = 1; i <= MEMBERS; i++) {
+            members.add(new Object[]{ID_BASE + i, "회원" + i, "서울", "거리" + i, "1234"});
+        }
+        jdbcTemplate.batchUpdate("insert into member (member_id, name, city, street, zipcode) values (?, ?, ?, ?, ?)", members);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS; i++) {
+            items.add(new Object[]{ID_BASE + i, "BOOK" + i, 10000, 1000});
+        }
+        jdbcTemplate.batchUpdate("insert into item (dtype, item_id, name, price, stock_quantity, version) values ('B', ?, ?, ?, ?, 0)", items);
+
+        List<Object[]> deliveries = new ArrayList<>();
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> orderItems = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 1; i <= ORDERS; i++) {
+            long orderId = ID_BASE + i;
+            String status = i % 10 == 0 ? "CANCEL" : "ORDER";
+            deliveries.add(new Object[]{orderId, "서울", "거리", "1234", i % 3 == 0 ? "COMP" : "READY"});
+            orders.add(new Object[]{orderId, ID_BASE + 1 + i % MEMBERS, orderId, Timestamp.valueOf(start.plusMinutes(i)), status, 20000L});
+            orderItems.add(new Object[]{ID_BASE * 2 + i * 2L, ID_BASE + 1 + i % ITEMS, orderId, 10000, 1});
+            orderItems.add(new Object[]{ID_BASE * 2 + i * 2L + 1, ID_BASE + 1 + (i + 1) % ITEMS, orderId, 10000, 1});
+        }
+        jdbcTemplate.batchUpdate("insert into delivery (delivery_id, city, street, zipcode, status) values (?, ?, ?, ?, ?)", deliveries);
+        jdbcTemplate.batchUpdate("insert into orders (order_id, member_id, delivery_id, order_date, status, version, total_amount) " +
+                "values (?, ?, ?, ?, ?, 0, ?)", orders);
+        jdbcTemplate.batchUpdate("insert into order_item (order_item_id, item_id, order_id, order_price, count) values (?, ?, ?, ?, ?)", orderItems);
+        jdbcTemplate.execute("analyze");  // 옵티마이저 통계 갱신
+        seeded = true;
+    }
+
+    @Test
+    void 회원_이름_조회() {
+        assertNoTableScan(() -> memberRepository.findByName("회원7"));
+    }
+
+    @Test
+    void 주문_상태_검색() {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(OrderStatus.CANCEL);
+
+        assertNoTableScan(() -> orderRepository.findAllByString(orderSearch));
+        assertNoTableScan(() -> orderRepository.findAllByCriteria(orderSearch));
+    }
+
+    @Test
+    void 주문_회원_이름_검색() {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName("회원7");
+
+        assertNoTableScan(() -> orderRepository.findAllByString(orderSearch));
+
+        orderSearch.setOrderStatus(OrderStatus.ORDER);
+        assertNoTableScan(() -> orderRepository.findAllByString(orderSearch));
+    }
+
+    @Test
+    void 상태별_매출_합계() {
+        assertNoTableScan(() -> orderRepository.sumTotalAmount(OrderStatus.ORDER));
+    }
+
+    @Test
+    void 주문_페이지_조회() {
+        // 1단계(id 페이징)는 order by id 로 PK를 읽고 limit에서 멈춘다. 2단계 fetch join이 PK IN 조회인지 확인
+        orderRepository.findAllWithItem(100, 10);
+        List<String> queries = sqlCapture.drain();
+        assertFalse(queries.isEmpty());
+        assertNoTableScan(queries.subList(1, queries.size()));
+    }
+
+    @Test
+    void 회원_주문_내역과_orderItems_IN_조회() {
+        // 루트(회원 주문 keyset) + orderItems IN 조회(커버링 인덱스)
+        assertNoTableScan(() -> orderQueryRepository.findMemberOrderHistory(ID_BASE + 7, null, null, 20));
+    }
+
+    private void assertNoTableScan(Runnable repositoryCall) {
+        sqlCapture.drain();
+        repositoryCall.run();
+        List<String> queries = sqlCapture.drain();
+        assertFalse(queries.isEmpty(), "실행된 select 문이 있어야 한다.");
+        assertNoTableScan(queries);
+    }
+
+    private void assertNoTableScan(List<String> queries) {
+        for (String sql : queries) {
+            String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+            assertFalse(plan.contains("tableScan"), "전체 스캔 :\n" + plan);
+        }
+    }
+}
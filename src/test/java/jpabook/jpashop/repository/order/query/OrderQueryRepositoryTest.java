@@ -0,0 +1,73 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 청크 크기를 1로 줄여서 InitDb의 주문 2건이 서로 다른 스레드/커넥션(전용 읽기 전용 풀)에서 조회되도록 한다.
+ */
+@SpringBootTest(properties = "jpashop.order-query.chunk-size=1")
+class OrderQueryRepositoryTest {
+
+    @Autowired OrderQueryRepository orderQueryRepository;
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+
+    @Test
+    void 청크_병렬조회_결과는_주문별_조회와_같다() {
+        //given
+        List<OrderQueryDto> expected = orderQueryRepository.findOrderQueryDtos();
+
+        //when
+        List<OrderQueryDto> result = orderQueryRepository.findAllByDto_optimization();
+
+        //then
+        assertEquals(expected.size(), result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(expected.get(i).getOrderId(), result.get(i).getOrderId());
+            assertEquals(expected.get(i).getOrderItems(), result.get(i).getOrderItems());
+        }
+    }
+
+    @Test
+    void 회원_주문내역_keyset_페이징() {
+        //given
+        Book book = new Book();
+        book.setName("주문내역 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+
+        Member member = new Member();
+        member.setName("주문내역 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberService.join(member);
+
+        Long first = orderService.order(member.getId(), book.getId(), 1);
+        Long second = orderService.order(member.getId(), book.getId(), 2);
+        Long third = orderService.order(member.getId(), book.getId(), 3);
+
+        //when
+        List<OrderQueryDto> page1 = orderQueryRepository.findMemberOrderHistory(member.getId(), null, null, 2);
+        OrderQueryDto last = page1.get(page1.size() - 1);
+        List<OrderQueryDto> page2 = orderQueryRepository.findMemberOrderHistory(member.getId(), last.getOrderDate(), last.getOrderId(), 2);
+
+        //then : 최신순, 중복/누락 없음, orderItems 포함
+        assertEquals(List.of(third, second), page1.stream().map(OrderQueryDto::getOrderId).toList());
+        assertEquals(List.of(first), page2.stream().map(OrderQueryDto::getOrderId).toList());
+        assertEquals(3, page1.get(0).getOrderItems().get(0).getCount());
+        assertEquals(1, page2.get(0).getOrderItems().get(0).getCount());
+    }
+}
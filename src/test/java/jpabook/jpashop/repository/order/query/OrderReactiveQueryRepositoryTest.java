@@ -0,0 +1,44 @@
+package jpabook.jpashop.repository.order.query;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JDBC(JPA)와 R2DBC가 같은 메모리 DB(rxtest)를 보도록 맞추고 InitDb 데이터를 읽는다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rxtest;DB_CLOSE_DELAY=-1",
+        "jpashop.r2dbc.url=r2dbc:h2:mem:///rxtest"
+})
+class OrderReactiveQueryRepositoryTest {
+
+    @Autowired OrderReactiveQueryRepository orderReactiveQueryRepository;
+    @Autowired OrderQueryRepository orderQueryRepository;
+
+    @Test
+    void JPA_조회결과와_같다() {
+        //given
+        List<OrderQueryDto> expected = orderQueryRepository.findAllByDto_optimization();
+
+        //when
+        List<OrderQueryDto> result = orderReactiveQueryRepository.streamAllByDto_optimization()
+                .collectList()
+                .block();
+
+        //then
+        assertEquals(expected.size(), result.size());
+        for (OrderQueryDto order : result) {
+            OrderQueryDto match = expected.stream()
+                    .filter(o -> o.getOrderId().equals(order.getOrderId()))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(match.getName(), order.getName());
+            assertEquals(match.getOrderItems().size(), order.getOrderItems().size());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.BulkCancelJob;
+import jpabook.jpashop.domain.BulkJobStatus;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.sales.ItemSalesDto;
+import jpabook.jpashop.repository.sales.SalesRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 청크마다 커밋하므로 테스트 트랜잭션 없이 실행한다.
+ */
+@SpringBootTest
+class BulkCancelServiceTest {
+
+    @Autowired BulkCancelService bulkCancelService;
+    @Autowired OrderService orderService;
+    @Autowired ItemService itemService;
+    @Autowired MemberService memberService;
+    @Autowired OrderRepository orderRepository;
+    @Autowired SalesRollupRepository salesRollupRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void 조건별_대량취소() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("대량취소 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+
+        Member member = new Member();
+        member.setName("대량취소 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberService.join(member);
+
+        Long canceledOrderId = orderService.order(member.getId(), book.getId(), 2);
+        Long deliveredOrderId = orderService.order(member.getId(), book.getId(), 3);
+        jdbcTemplate.update("update delivery set status = 'COMP' where delivery_id = " +
+                "(select delivery_id from orders where order_id = ?)", deliveredOrderId);
+
+        //when
+        BulkCancelJob job = bulkCancelService.start(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), book.getId());
+
+        //then
+        assertEquals(BulkJobStatus.COMPLETED, job.getStatus());
+        assertEquals(1, job.getCanceledCount());
+        assertEquals(1, job.getSkippedCount(), "배송 완료된 주문은 취소하지 않는다.");
+        assertEquals(OrderStatus.CANCEL, orderRepository.findOne(canceledOrderId).getStatus());
+        assertEquals(OrderStatus.ORDER, orderRepository.findOne(deliveredOrderId).getStatus());
+        assertEquals(10 - 3, itemService.findOne(book.getId()).getStockQuantity(), "취소한 주문의 재고만 복구되어야 한다.");
+
+        LocalDate today = LocalDate.now();
+        assertEquals(3, soldQuantity(today, OrderStatus.ORDER, book.getId()));
+        assertEquals(2, soldQuantity(today, OrderStatus.CANCEL, book.getId()));
+
+        // 완료된 작업을 다시 실행해도 변화 없음
+        BulkCancelJob resumed = bulkCancelService.resume(job.getId());
+        assertEquals(1, resumed.getCanceledCount());
+        assertEquals(10 - 3, itemService.findOne(book.getId()).getStockQuantity());
+    }
+
+    private long soldQuantity(LocalDate date, OrderStatus status, Long itemId) {
+        return salesRollupRepository.findItemSales(date, date, status).stream()
+                .filter(s -> s.getItemId().equals(itemId))
+                .mapToLong(ItemSalesDto::getQuantity)
+                .sum();
+    }
+}
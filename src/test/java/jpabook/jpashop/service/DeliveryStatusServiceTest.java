@@ -0,0 +1,118 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.DeliveryStatus;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.delivery.DeliveryBacklogDto;
+import jpabook.jpashop.repository.delivery.DeliveryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 청크마다 커밋하므로 테스트 트랜잭션 없이 실행한다.
+ */
+@SpringBootTest
+class DeliveryStatusServiceTest {
+
+    @Autowired DeliveryStatusService deliveryStatusService;
+    @Autowired DeliveryRepository deliveryRepository;
+    @Autowired OrderService orderService;
+    @Autowired ItemService itemService;
+    @Autowired MemberService memberService;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void 배송상태_일괄반영() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("배송 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+
+        Member member = new Member();
+        member.setName("배송 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberService.join(member);
+
+        Long deliveredOrderId = orderService.order(member.getId(), book.getId(), 1);
+        Long canceledOrderId = orderService.order(member.getId(), book.getId(), 1);
+        orderService.cancelOrder(canceledOrderId);
+
+        Long deliveredId = deliveryIdOf(deliveredOrderId);
+        Long canceledId = deliveryIdOf(canceledOrderId);
+        assertTrue(deliveryRepository.findReadyBacklog(0L, 1000).stream()
+                .map(DeliveryBacklogDto::getDeliveryId)
+                .anyMatch(deliveredId::equals), "주문하면 배송 대기 상태여야 한다.");
+
+        String csv = "deliveryId,status\n" +
+                deliveredId + ",COMP\n" +
+                canceledId + ",COMP\n" +
+                "abc,COMP\n";
+
+        //when
+        DeliveryStatusUpdateResult result = deliveryStatusService.updateFromCsv(new StringReader(csv));
+
+        //then
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getSkipped(), "취소된 주문의 배송은 완료 처리하지 않는다.");
+        assertEquals(1, result.getRejected());
+        assertEquals(DeliveryStatus.COMP.name(), statusOf(deliveredId));
+        assertEquals(DeliveryStatus.READY.name(), statusOf(canceledId));
+        assertFalse(deliveryRepository.findReadyBacklog(0L, 1000).stream()
+                .map(DeliveryBacklogDto::getDeliveryId)
+                .anyMatch(deliveredId::equals));
+
+        assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(deliveredOrderId),
+                "배송 완료된 주문은 취소할 수 없다.");
+    }
+
+    @Test
+    void 같은_배송이_반복되거나_이미_그_상태면_반영_수에서_제외() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("배송 중복 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+
+        Member member = new Member();
+        member.setName("배송 중복 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberService.join(member);
+
+        Long readyId = deliveryIdOf(orderService.order(member.getId(), book.getId(), 1));
+        Long deliveredId = deliveryIdOf(orderService.order(member.getId(), book.getId(), 1));
+
+        String csv = "deliveryId,status\n" +
+                readyId + ",READY\n" +
+                deliveredId + ",COMP\n" +
+                deliveredId + ",COMP\n" +
+                deliveredId + ",READY\n";
+
+        //when
+        DeliveryStatusUpdateResult result = deliveryStatusService.updateFromCsv(new StringReader(csv));
+
+        //then : 실제로 바뀐 것은 deliveredId의 READY -> COMP 한 건
+        assertEquals(4, result.getProcessed());
+        assertEquals(1, result.getUpdated());
+        assertEquals(3, result.getSkipped());
+        assertEquals(DeliveryStatus.READY.name(), statusOf(readyId));
+        assertEquals(DeliveryStatus.COMP.name(), statusOf(deliveredId));
+    }
+
+    private Long deliveryIdOf(Long orderId) {
+        return jdbcTemplate.queryForObject("select delivery_id from orders where order_id = ?", Long.class, orderId);
+    }
+
+    private String statusOf(Long deliveryId) {
+        return jdbcTemplate.queryForObject("select status from delivery where delivery_id = ?", String.class, deliveryId);
+    }
+}
@@ -0,0 +1,115 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.IdempotencyConflictException;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.repository.IdempotencyKeyRepository;
+import jpabook.jpashop.retry.OptimisticLockRetry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 동시 요청을 실제로 커밋해야 하므로 테스트 트랜잭션 없이 실행한다.
+ */
+@SpringBootTest
+class IdempotentOrderServiceTest {
+
+    @Autowired IdempotentOrderService idempotentOrderService;
+    @Autowired OrderService orderService;
+    @Autowired IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired OptimisticLockRetry optimisticLockRetry;
+    @Autowired ItemService itemService;
+    @Autowired MemberService memberService;
+
+    @Test
+    void 같은_키_동시요청은_주문_한번() throws Exception {
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(100);
+        String key = UUID.randomUUID().toString();
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> idempotentOrderService.order(key, memberId, itemId, 1)));
+        }
+        Set<Long> orderIds = new HashSet<>();
+        for (Future<Long> future : futures) {
+            orderIds.add(future.get());
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(1, orderIds.size(), "모든 요청이 같은 주문 id를 받아야 한다.");
+        assertEquals(99, itemService.findOne(itemId).getStockQuantity(), "재고는 한 번만 차감되어야 한다.");
+    }
+
+    @Test
+    void 재시작_후에도_DB의_키로_중복_방지() throws Exception {
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(100);
+        String key = UUID.randomUUID().toString();
+        Long orderId = idempotentOrderService.order(key, memberId, itemId, 2);
+
+        //when : 메모리가 비어있는 새 인스턴스
+        IdempotentOrderService restarted = new IdempotentOrderService(orderService, idempotencyKeyRepository,
+                transactionManager, optimisticLockRetry, Duration.ofHours(1), Duration.ofSeconds(10), 100);
+
+        //then
+        assertEquals(orderId, restarted.order(key, memberId, itemId, 2));
+        assertEquals(98, itemService.findOne(itemId).getStockQuantity());
+        assertThrows(IdempotencyConflictException.class, () -> restarted.order(key, memberId, itemId, 3),
+                "같은 키로 다른 주문을 요청하면 거절한다.");
+    }
+
+    @Test
+    void 주문_실패는_중복_키로_보고하지_않는다() throws Exception {
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(1);
+        String key = UUID.randomUUID().toString();
+
+        //when : 주문 안에서 실패하면 키도 롤백되어야 한다.
+        assertThrows(NotEnoughStockException.class, () -> idempotentOrderService.order(key, memberId, itemId, 2));
+
+        //then : 같은 키로 다시 요청할 수 있다.
+        Long orderId = idempotentOrderService.order(key, memberId, itemId, 1);
+        assertNotNull(orderId);
+        assertEquals(0, itemService.findOne(itemId).getStockQuantity());
+    }
+
+    private Long createMember() {
+        Member member = new Member();
+        member.setName("멱등 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        return memberService.join(member);
+    }
+
+    private Long createBook(int stockQuantity) {
+        Book book = new Book();
+        book.setName("멱등 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(stockQuantity);
+        itemService.save(book);
+        return book.getId();
+    }
+}
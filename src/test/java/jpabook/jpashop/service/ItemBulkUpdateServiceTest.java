@@ -0,0 +1,107 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 청크마다 커밋하므로 테스트 트랜잭션 없이 실행한다.
+ */
+@SpringBootTest
+class ItemBulkUpdateServiceTest {
+
+    @Autowired ItemBulkUpdateService itemBulkUpdateService;
+    @Autowired ItemService itemService;
+
+    @Test
+    void CSV_대량수정() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("대량수정 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+
+        String csv = "itemId,price,stockQuantity\n" +
+                book.getId() + ",2000,20\n" +
+                "999999999,1,1\n" +
+                "abc,1,1\n";
+
+        //when
+        ItemBulkUpdateResult result = itemBulkUpdateService.updateFromCsv(new StringReader(csv));
+
+        //then
+        Item item = itemService.findOne(book.getId());
+        assertEquals(2000, item.getPrice());
+        assertEquals(20, item.getStockQuantity());
+        assertEquals(3, result.getProcessed());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getMissing());
+        assertEquals(1, result.getRejected());
+    }
+
+    @Test
+    void CSV_헤더가_다르면_반영하지_않고_거부() throws Exception {
+        //given : 열 순서가 다른 파일
+        Book book = new Book();
+        book.setName("헤더 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+
+        String csv = "\n" +
+                "itemId,stockQuantity,price\n" +
+                book.getId() + ",20,2000\n";
+
+        //when
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> itemBulkUpdateService.updateFromCsv(new StringReader(csv)));
+
+        //then
+        assertTrue(e.getMessage().startsWith("2번째 줄"));
+        assertEquals(1000, itemService.findOne(book.getId()).getPrice());
+    }
+
+    @Test
+    void JSON_값이_빠지거나_타입이_다른_행은_거부() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("JSON 대량수정 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+        Book other = new Book();
+        other.setName("JSON 대량수정 BOOK2");
+        other.setPrice(1000);
+        other.setStockQuantity(10);
+        itemService.save(other);
+
+        String json = "[" +
+                "{\"itemId\": " + book.getId() + ", \"price\": 2000}," +  // stockQuantity 없음 -> 0으로 반영하면 안됨
+                "{\"itemId\": " + book.getId() + ", \"price\": \"abc\", \"stockQuantity\": 1}," +  // 타입 오류
+                "{\"itemId\": " + other.getId() + ", \"price\": 3000, \"stockQuantity\": 30}" +  // 이후 행은 계속 처리
+                "]";
+
+        //when
+        ItemBulkUpdateResult result = itemBulkUpdateService.updateFromJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        //then
+        Item unchanged = itemService.findOne(book.getId());
+        assertEquals(1000, unchanged.getPrice());
+        assertEquals(10, unchanged.getStockQuantity());
+        Item updated = itemService.findOne(other.getId());
+        assertEquals(3000, updated.getPrice());
+        assertEquals(30, updated.getStockQuantity());
+        assertEquals(2, result.getRejected());
+        assertEquals(1, result.getUpdated());
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,4 +34,45 @@ public class ItemServiceTest {
         //then
         Assertions.assertEquals(item, itemRepository.findOne(item.getId()));
     }
+
+    @Test
+    public void 상품_수정_버전이_다르면_충돌() {
+        //given : 수정 화면을 연 뒤 주문으로 재고가 바뀜
+        Book item = new Book();
+        item.setName("책1");
+        item.setPrice(1000);
+        item.setStockQuantity(10);
+        itemService.save(item);
+        em.flush();
+        Long versionOnForm = item.getVersion();
+        itemRepository.removeStock(item.getId(), 3);
+
+        //when, then : 화면의 재고(10)로 덮어쓰지 않는다.
+        Assertions.assertThrows(OptimisticLockingFailureException.class,
+                () -> itemService.updateItem(item.getId(), versionOnForm, "책1", 2000, 10));
+        em.clear();
+        Assertions.assertEquals(7, itemRepository.findOne(item.getId()).getStockQuantity());
+        Assertions.assertEquals(1000, itemRepository.findOne(item.getId()).getPrice());
+    }
+
+    @Test
+    public void 상품_수정() {
+        //given
+        Book item = new Book();
+        item.setName("책1");
+        item.setPrice(1000);
+        item.setStockQuantity(10);
+        itemService.save(item);
+        em.flush();
+
+        //when
+        itemService.updateItem(item.getId(), item.getVersion(), "책2", 2000, 20);
+        em.flush();
+        em.clear();
+
+        //then
+        Item findItem = itemRepository.findOne(item.getId());
+        Assertions.assertEquals("책2", findItem.getName());
+        Assertions.assertEquals(20, findItem.getStockQuantity());
+    }
 }
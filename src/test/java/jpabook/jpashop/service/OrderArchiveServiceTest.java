@@ -0,0 +1,71 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 청크마다 커밋하므로 테스트 트랜잭션 없이 실행한다.
+ */
+@SpringBootTest
+class OrderArchiveServiceTest {
+
+    @Autowired OrderArchiveService orderArchiveService;
+    @Autowired OrderService orderService;
+    @Autowired OrderRepository orderRepository;
+    @Autowired ItemService itemService;
+    @Autowired MemberService memberService;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void 오래된_주문_보관() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("보관 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+
+        Member member = new Member();
+        member.setName("보관 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberService.join(member);
+
+        Long oldOrderId = orderService.order(member.getId(), book.getId(), 2);
+        orderService.cancelOrder(oldOrderId);
+        Long openOrderId = orderService.order(member.getId(), book.getId(), 1);
+        jdbcTemplate.update("update orders set order_date = ? where order_id in (?, ?)",
+                LocalDateTime.now().minusDays(400), oldOrderId, openOrderId);
+
+        //when
+        long archived = orderArchiveService.archiveOlderThan(LocalDateTime.now().minusDays(365));
+
+        //then
+        assertEquals(1, archived, "처리가 끝나지 않은 주문은 보관하지 않는다.");
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from orders where order_id = ?", Long.class, oldOrderId));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from order_item where order_id = ?", Long.class, oldOrderId));
+
+        Order order = orderRepository.findOne(oldOrderId);
+        assertTrue(order.isArchived());
+        assertEquals(OrderStatus.CANCEL, order.getStatus());
+        assertNotNull(order.getCanceledAt(), "취소 시각도 함께 보관한다.");
+        assertEquals(2000L, order.getTotalPrice());
+        assertEquals(1, order.getOrderItems().size());
+        assertEquals(2, order.getOrderItems().get(0).getCount());
+        assertEquals("서울", order.getDelivery().getAddress().getCity());
+
+        assertFalse(orderRepository.findOne(openOrderId).isArchived());
+        assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(oldOrderId));
+    }
+}
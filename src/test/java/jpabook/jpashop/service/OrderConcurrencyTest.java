@@ -0,0 +1,289 @@
+package jpabook.jpashop.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.sales.ItemSalesDto;
+import jpabook.jpashop.repository.sales.SalesRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 같은 상품에 동시 주문이 몰려도 재고/매출 집계 변경이 유실되지 않는지 검증 (트랜잭션 롤백 없이 실제 커밋)
+ * - 오늘 이 상품의 매출 집계 행이 없는 상태에서 시작하므로 첫 주문들의 행 생성 경쟁도 포함된다.
+ * - 주문의 재고 차감은 조건부 bulk update(ItemRepository.removeStock)라서 @Version 충돌이 나지 않는다.
+ *   낙관적 락 재시도 경로는 취소(cancelOrder)로 검증한다.
+ */
+@SpringBootTest
+class OrderConcurrencyTest {
+
+    @Autowired OrderService orderService;
+    @Autowired ItemService itemService;
+    @Autowired MemberService memberService;
+    @Autowired SalesRollupRepository salesRollupRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    void 동시_주문_재고_유실_없음() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("동시성 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(1000);
+        itemService.save(book);
+
+        Member member = new Member();
+        member.setName("동시성 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberService.join(member);
+
+        int threads = 8;
+        int ordersPerThread = 10;
+        AtomicInteger success = new AtomicInteger();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < ordersPerThread; i++) {
+                    try {
+                        orderService.order(member.getId(), book.getId(), 1);
+                        success.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then : 재고가 충분하므로 모든 주문이 성공하고, 그만큼 정확히 재고가 줄고 매출 수량이 늘어야 한다.
+        assertEquals(List.of(), failures);
+        assertEquals(threads * ordersPerThread, success.get());
+        assertEquals(1000 - success.get(), itemService.findOne(book.getId()).getStockQuantity());
+
+        LocalDate today = LocalDate.now();
+        long soldQuantity = salesRollupRepository.findItemSales(today, today, OrderStatus.ORDER).stream()
+                .filter(s -> s.getItemId().equals(book.getId()))
+                .mapToLong(ItemSalesDto::getQuantity)
+                .sum();
+        assertEquals(success.get(), soldQuantity);
+    }
+
+    @Test
+    void 같은_주문_동시_취소는_한번만_반영() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("동시 취소 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(100);
+        itemService.save(book);
+
+        Member member = new Member();
+        member.setName("동시 취소 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberService.join(member);
+        Long orderId = orderService.order(member.getId(), book.getId(), 3);
+
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger success = new AtomicInteger();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        //when : 충돌한 쪽은 재시도하면서 이미 취소된 주문을 본다.
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.cancelOrder(orderId);
+                    success.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    failures.add(e);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then : 재고 복구와 매출 집계 이동은 한 번만
+        assertEquals(1, success.get());
+        assertEquals(threads - 1, failures.size());
+        assertEquals(100, itemService.findOne(book.getId()).getStockQuantity());
+
+        LocalDate today = LocalDate.now();
+        assertEquals(0, soldQuantity(book.getId(), today, OrderStatus.ORDER));
+        assertEquals(3, soldQuantity(book.getId(), today, OrderStatus.CANCEL));
+    }
+
+    @Test
+    void 취소_중_주문이_바뀌면_재시도해서_반영() throws Exception {
+        //given
+        Book book = new Book();
+        book.setName("취소 재시도 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(100);
+        itemService.save(book);
+
+        Member member = new Member();
+        member.setName("취소 재시도 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberService.join(member);
+        Long orderId = orderService.order(member.getId(), book.getId(), 2);
+        long versionBefore = orderVersion(orderId);
+        double conflictsBefore = cancelConflicts();
+
+        //when : 다른 트랜잭션이 주문 행을 잠그고 version을 올린 상태에서 취소가 시작됨
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> otherTx = executor.submit(() -> tx.executeWithoutResult(status -> {
+            jdbcTemplate.update("update orders set version = version + 1 where order_id = ?", orderId);
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+        Thread cancel = new Thread(() -> orderService.cancelOrder(orderId));
+        cancel.start();
+        Thread.sleep(200);  // 취소가 이전 version을 읽고 update에서 행 잠금을 기다림
+        release.countDown();
+        otherTx.get();
+        cancel.join();
+        executor.shutdown();
+
+        //then : 첫 시도는 version 충돌, 재시도(2번째 시도)에서 취소된다.
+        assertEquals(1, cancelConflicts() - conflictsBefore);
+        assertEquals(versionBefore + 2, orderVersion(orderId));
+        assertEquals(100, itemService.findOne(book.getId()).getStockQuantity());
+    }
+
+    private long orderVersion(Long orderId) {
+        return jdbcTemplate.queryForObject("select version from orders where order_id = ?", Long.class, orderId);
+    }
+
+    private double cancelConflicts() {
+        Counter counter = meterRegistry.find("optimistic.lock.conflicts").tag("method", "OrderService.cancelOrder(..)").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private long soldQuantity(Long itemId, LocalDate salesDate, OrderStatus status) {
+        return salesRollupRepository.findItemSales(salesDate, salesDate, status).stream()
+                .filter(s -> s.getItemId().equals(itemId))
+                .mapToLong(ItemSalesDto::getQuantity)
+                .sum();
+    }
+
+    @Test
+    void 관리자_수정중_주문이_들어오면_수정은_충돌() {
+        //given : 관리자가 수정 화면을 연 상태
+        Book book = new Book();
+        book.setName("수정 충돌 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(100);
+        itemService.save(book);
+
+        Member member = new Member();
+        member.setName("수정 충돌 회원");
+        member.setAddress(new Address("서울", "1", "1111"));
+        memberService.join(member);
+
+        Long versionOnForm = itemService.findOne(book.getId()).getVersion();
+
+        //when : 그 사이 주문이 커밋됨
+        orderService.order(member.getId(), book.getId(), 5);
+
+        //then : 화면의 재고(100)로 덮어쓰지 않고 충돌을 알린다. 주문의 재고 차감은 유지된다.
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> itemService.updateItem(book.getId(), versionOnForm, "수정 충돌 BOOK", 2000, 100));
+        assertEquals(95, itemService.findOne(book.getId()).getStockQuantity());
+        assertEquals(1000, itemService.findOne(book.getId()).getPrice());
+    }
+
+    @Test
+    void 매출_집계_행이_없을때_동시_반영() throws Exception {
+        //given : 집계 행이 없는 날짜/상품
+        Book book = new Book();
+        book.setName("집계 BOOK");
+        book.setPrice(1000);
+        book.setStockQuantity(10);
+        itemService.save(book);
+        LocalDate salesDate = LocalDate.of(2000, 1, 1);
+
+        int threads = 8;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        //when : 모두 동시에 첫 행을 만들려고 함
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                tx.executeWithoutResult(status ->
+                        salesRollupRepository.add(salesDate, book.getId(), OrderStatus.ORDER, 1000, 1));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();  // PK 중복으로 실패하면 여기서 ExecutionException
+        }
+        executor.shutdown();
+
+        //then : 행 하나에 모든 증분이 더해진다.
+        List<ItemSalesDto> sales = salesRollupRepository.findItemSales(salesDate, salesDate, OrderStatus.ORDER);
+        assertEquals(1, sales.size());
+        assertEquals(threads, sales.get(0).getQuantity());
+        assertEquals(threads * 1000L, sales.get(0).getRevenue());
+    }
+
+    @Test
+    void 샘플_주문도_매출_집계에_반영되어_있음() {
+        //given : InitDb가 OrderService를 거치지 않고 넣은 주문 (JPA1 BOOK 1개, JPA2 BOOK 2개)
+        Long itemId = jdbcTemplate.queryForObject("select item_id from item where name = 'JPA1 BOOK'", Long.class);
+        LocalDate orderDate = jdbcTemplate.queryForObject(
+                "select cast(o.order_date as date) from orders o join order_item oi on oi.order_id = o.order_id where oi.item_id = ?",
+                LocalDate.class, itemId);
+
+        //then : 기동 시 백필로 집계 행이 있으므로 취소해도 ORDER 행이 음수가 되지 않는다.
+        assertEquals(1, soldQuantity(itemId, orderDate, OrderStatus.ORDER));
+        assertEquals(0, salesRollupRepository.backfillIfEmpty());  // 이미 채워졌으면 다시 넣지 않음
+    }
+}
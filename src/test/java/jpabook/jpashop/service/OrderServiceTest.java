@@ -1,5 +1,7 @@
 package jpabook.jpashop.service;
 
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
 import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Member;
@@ -9,14 +11,26 @@ import jpabook.jpashop.domain.item.Book;
 import jpabook.jpashop.domain.item.Item;
 import jpabook.jpashop.exception.NotEnoughStockException;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.sales.ItemSalesDto;
+import jpabook.jpashop.repository.sales.SalesRollupRepository;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.*;
 
@@ -31,6 +45,55 @@ class OrderServiceTest {
     OrderService orderService;
     @Autowired
     OrderRepository orderRepository;
+    @Autowired
+    SalesRollupRepository salesRollupRepository;
+    @Autowired
+    SqlCapture sqlCapture;
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+    }
+
+    /**
+     * 테스트 스레드에서 실행된 SQL을 종류(select, 'update 테이블', 'insert into 테이블' 등)로 모은다.
+     * - Hibernate 통계에 잡히지 않는 JdbcTemplate 문장도 포함된다.
+     * - 시퀀스 조회는 할당 크기에 따라 앞선 테스트 영향을 받으므로 제외한다.
+     */
+    static class SqlCapture extends SimpleJdbcEventListener {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+        private volatile Thread thread;
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            if (Thread.currentThread() != thread) {
+                return;  // 스케줄 작업 등 다른 스레드
+            }
+            String[] words = statementInformation.getSql().strip().toLowerCase().split("\\s+");
+            if (words[0].equals("select") && statementInformation.getSql().toLowerCase().contains("next value for")) {
+                return;
+            }
+            statements.add(switch (words[0]) {
+                case "select" -> "select";
+                case "update" -> words[0] + " " + words[1];
+                default -> words[0] + " " + words[1] + " " + words[2];
+            });
+        }
+
+        void start() {
+            statements.clear();
+            thread = Thread.currentThread();
+        }
+
+        List<String> stop() {
+            thread = null;
+            return statements.stream().sorted().toList();
+        }
+    }
 
     @Test
     public void 상품주문() throws Exception {
@@ -87,6 +150,94 @@ class OrderServiceTest {
         assertEquals("주문이 취소된 상품은 그만큼 재고가 증가해야 한다.", 10, book.getStockQuantity());
     }
 
+    @Test
+    public void 주문총액_저장() throws Exception {
+        //given
+        Member member = createMember();
+        Item book = createBook("시골 jpa", 2_000_000_000, 10);
+
+        //when
+        Long orderId = orderService.order(member.getId(), book.getId(), 5);
+        em.flush();
+        em.clear();
+
+        //then
+        Order getOrder = orderRepository.findOne(orderId);
+
+        assertEquals("int 범위를 넘는 주문 총액도 저장되어야 한다.", 10_000_000_000L, getOrder.getTotalPrice());
+        assertFalse("총액 조회 시 orderItems를 로딩하지 않는다.", Hibernate.isInitialized(getOrder.getOrderItems()));
+    }
+
+    @Test
+    public void 매출집계_증분반영() throws Exception {
+        //given
+        Member member = createMember();
+        Item book = createBook("시골 jpa", 10000, 10);
+        LocalDate today = LocalDate.now();
+
+        //when
+        orderService.order(member.getId(), book.getId(), 2);
+        Long canceledId = orderService.order(member.getId(), book.getId(), 3);
+        orderService.cancelOrder(canceledId);
+
+        //then
+        ItemSalesDto ordered = salesRollupRepository.findItemSales(today, today, OrderStatus.ORDER).get(0);
+        ItemSalesDto canceled = salesRollupRepository.findItemSales(today, today, OrderStatus.CANCEL).get(0);
+
+        assertEquals("취소되지 않은 주문만 매출에 남는다.", 20000L, ordered.getRevenue());
+        assertEquals(2L, ordered.getQuantity());
+        assertEquals("취소된 주문은 CANCEL 집계로 옮겨진다.", 30000L, canceled.getRevenue());
+    }
+
+    @Test
+    public void 주문시_회원주문목록_로딩안함() throws Exception {
+        //given
+        Member member = createMember();
+        Item book = createBook("시골 jpa", 10000, 10);
+        em.flush();
+        em.clear();
+
+        //when
+        Long orderId = orderService.order(member.getId(), book.getId(), 1);
+
+        //then
+        Member findMember = em.find(Member.class, member.getId());
+        assertFalse("주문 생성 시 회원의 orders 컬렉션을 초기화하지 않는다.", Hibernate.isInitialized(findMember.getOrders()));
+
+        // 컬렉션 초기화는 자동 flush를 하지 않으므로 flush 후 다시 조회해야 새 주문이 보인다.
+        em.flush();
+        em.clear();
+        Member reloaded = em.find(Member.class, member.getId());
+        assertTrue("flush 후 다시 조회하면 새 주문이 포함된다.", reloaded.getOrders().stream().anyMatch(o -> o.getId().equals(orderId)));
+    }
+
+    @Test
+    public void 주문_SQL_수() throws Exception {
+        //given
+        Member member = createMember();
+        Item book = createBook("시골 jpa", 10000, 10);
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        sqlCapture.start();
+
+        //when
+        orderService.order(member.getId(), book.getId(), 2);
+        em.flush();
+
+        //then
+        List<String> statements = sqlCapture.stop();
+        assertEquals("회원, 상품 엔티티를 로딩하지 않는다.", 0, statistics.getEntityLoadCount());
+        assertEquals("재고는 벌크 update로 차감하므로 엔티티 update가 없다.", 0, statistics.getEntityUpdateCount());
+        // 조회 1 + 재고 차감 1 + 주문/배송/주문상품 insert 3 + 매출 집계 merge 1 (JdbcTemplate 포함, 시퀀스 조회 제외)
+        // ETag 버전(aggregate_version)은 커밋 후 메모리에만 반영하므로 주문 트랜잭션에서 SQL이 없다.
+        assertEquals("실행된 SQL", List.of(
+                "insert into delivery", "insert into order_item", "insert into orders",
+                "merge into daily_item_sales", "select", "update item"), statements);
+        assertEquals(8, em.find(Item.class, book.getId()).getStockQuantity());
+    }
+
     private Item createBook(String name, int price, int stockQuantity) {
         Item book = new Book();
         book.setName(name);
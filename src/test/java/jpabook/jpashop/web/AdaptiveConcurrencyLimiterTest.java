@@ -0,0 +1,61 @@
+package jpabook.jpashop.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void 비싼_조회가_먼저_거절되고_쓰기는_한도까지_허용() {
+        //given : 한도 10 -> EXPENSIVE_READ 5, READ 8, WRITE 10
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, TARGET, 0.5);
+
+        //when
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.EXPENSIVE_READ));
+        }
+
+        //then
+        assertFalse(limiter.tryAcquire(RequestPriority.EXPENSIVE_READ));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.READ));
+        }
+        assertFalse(limiter.tryAcquire(RequestPriority.READ));
+        assertTrue(limiter.tryAcquire(RequestPriority.WRITE));
+        assertTrue(limiter.tryAcquire(RequestPriority.WRITE));
+        assertFalse(limiter.tryAcquire(RequestPriority.WRITE));
+    }
+
+    @Test
+    void 느려지면_한도를_줄이고_빨라지면_다시_늘린다() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, TARGET, 0.5);
+
+        //느린 응답 -> 절반
+        assertTrue(limiter.tryAcquire(RequestPriority.WRITE));
+        limiter.release(TARGET * 2, false);
+        assertEquals(5.0, limiter.getLimit(), 0.001);
+
+        //한도 가까이 쓰면서 빠른 응답 -> 조금씩 증가
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.WRITE));
+        }
+        limiter.release(TARGET / 2, false);
+        assertTrue(limiter.getLimit() > 5.0);
+    }
+
+    @Test
+    void 표본_없이_반납하면_한도는_그대로() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, TARGET, 0.5);
+
+        assertTrue(limiter.tryAcquire(RequestPriority.WRITE));
+        limiter.release();
+
+        assertEquals(10.0, limiter.getLimit(), 0.001);
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,65 @@
+package jpabook.jpashop.web;
+
+import jpabook.jpashop.event.Aggregate;
+import jpabook.jpashop.event.AggregateChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AggregateVersionsTest {
+
+    private static final Set<Aggregate> ALL = EnumSet.allOf(Aggregate.class);
+
+    @Autowired AggregateVersions aggregateVersions;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void 다른_인스턴스의_변경도_동기화_후_같은_ETag() {
+        //given : 같은 DB를 쓰는 다른 서버
+        aggregateVersions.sync();
+        AggregateVersions otherServer = new AggregateVersions(jdbcTemplate);
+        String before = aggregateVersions.etag(ALL);
+        assertEquals(before, otherServer.etag(ALL));
+
+        //when : 다른 서버에서 상품 변경이 커밋됨
+        otherServer.onChanged(new AggregateChangedEvent(Aggregate.ITEM));
+
+        //then : 변경한 서버는 바로 새 ETag, 이 서버는 동기화 전까지 스냅샷(DB 조회 없음)
+        assertNotEquals(before, otherServer.etag(ALL));
+        assertEquals(before, aggregateVersions.etag(ALL));
+
+        //then : 양쪽이 동기화하면 같은 새 ETag
+        otherServer.sync();
+        aggregateVersions.sync();
+        String after = aggregateVersions.etag(ALL);
+        assertNotEquals(before, after);
+        assertEquals(after, otherServer.etag(ALL));
+        assertEquals(aggregateVersions.etag(EnumSet.of(Aggregate.MEMBER)), otherServer.etag(EnumSet.of(Aggregate.MEMBER)));
+    }
+
+    @Test
+    void 각자_변경해도_동기화_전_ETag는_겹치지_않음() {
+        //given
+        aggregateVersions.sync();
+        AggregateVersions otherServer = new AggregateVersions(jdbcTemplate);
+        otherServer.sync();
+
+        //when : 같은 DB 버전에서 두 서버가 각자 주문을 받음
+        aggregateVersions.onChanged(new AggregateChangedEvent(Aggregate.ORDER));
+        otherServer.onChanged(new AggregateChangedEvent(Aggregate.ORDER));
+
+        //then
+        assertNotEquals(aggregateVersions.etag(ALL), otherServer.etag(ALL));
+        aggregateVersions.sync();
+        otherServer.sync();
+        aggregateVersions.sync();  // 상대 서버가 나중에 더한 값까지 읽음
+        assertEquals(aggregateVersions.etag(ALL), otherServer.etag(ALL));
+    }
+}
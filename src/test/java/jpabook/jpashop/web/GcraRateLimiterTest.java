@@ -0,0 +1,31 @@
+package jpabook.jpashop.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GcraRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    @Test
+    void burst_이후에는_rate만큼만_허용() {
+        //given : 초당 10개, 최대 5개 몰아서
+        GcraRateLimiter limiter = new GcraRateLimiter(10, 5, 100, now::get);
+
+        //when, then
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("client"), "burst 까지는 허용");
+        }
+        long wait = limiter.tryAcquire("client");
+        assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(100), "다음 토큰까지 남은 시간을 알려준다.");
+        assertEquals(0, limiter.tryAcquire("other"), "키마다 따로 센다.");
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));  // 토큰 1개 충전
+        assertEquals(0, limiter.tryAcquire("client"));
+        assertTrue(limiter.tryAcquire("client") > 0);
+    }
+}
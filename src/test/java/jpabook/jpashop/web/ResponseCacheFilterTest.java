@@ -0,0 +1,60 @@
+package jpabook.jpashop.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jpabook.jpashop.event.Aggregate;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private static final String VERSION = "W/\"1\"";
+
+    private final AggregateVersions aggregateVersions = new AggregateVersions(null) {
+        @Override
+        public String etag(Set<Aggregate> aggregates) {
+            return VERSION;  // DB 없이 고정 버전
+        }
+    };
+    private final ResponseCache responseCache = new ResponseCache(aggregateVersions, new SimpleMeterRegistry(), 1 << 20);
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(responseCache, Duration.ofMillis(200));
+
+    @Test
+    void Error로_끝난_로딩이_다음_요청을_막지_않는다() throws Exception {
+        //given : 로딩하던 요청이 Error로 끝남
+        assertThrows(StackOverflowError.class, () -> filter.doFilter(get(), new MockHttpServletResponse(),
+                (req, res) -> { throw new StackOverflowError(); }));
+
+        //when
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(get(), response, (req, res) -> res.getWriter().write("orders"));
+
+        //then : 남아있는 미완료 future를 기다리지 않고 다시 처리한다.
+        assertEquals("orders", response.getContentAsString());
+    }
+
+    @Test
+    void 로딩이_오래_걸리면_기다리지_않고_직접_처리() throws Exception {
+        //given : 다른 요청이 같은 키를 로딩 중 (끝나지 않음)
+        responseCache.getOrRegister("/api/v4/orders?||" + VERSION, new CompletableFuture<>());
+
+        //when
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long start = System.nanoTime();
+        filter.doFilter(get(), response, (req, res) -> res.getWriter().write("orders"));
+
+        //then
+        assertEquals("orders", response.getContentAsString());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5_000);
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/v4/orders");
+    }
+}